@@ -1,14 +1,19 @@
 package ru.yandex.practicum.filmorate.model;
 
+import com.fasterxml.jackson.annotation.JsonView;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import ru.yandex.practicum.filmorate.util.IntHashSet;
 
 import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.Set;
 
 
 @Data
+@JsonView(Views.Lean.class)
 public class Film {
     private Integer id;
     private String name;
@@ -17,14 +22,70 @@ public class Film {
     private int duration;
     private int likesCount;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @Getter
-    private Set<Integer> likeScore = new HashSet<>();
+    @JsonView(Views.Full.class)
+    private IntHashSet likeScore = new IntHashSet();
 
-    public void addLike(int userId) {
-        likeScore.add(userId);
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private IntHashSet publishedLikes;
+
+    public void setLikeScore(IntHashSet likeScore) {
+        this.likeScore = likeScore;
+        publishedLikes = null;
+    }
+
+    public boolean hasLike(int userId) {
+        return likeScore.contains(userId);
+    }
+
+    public boolean addLike(int userId) {
+        if (!likeScore.add(userId)) {
+            return false;
+        }
+        publishedLikes = null;
+        return true;
+    }
+
+    public boolean removeLike(int userId) {
+        if (!likeScore.remove(userId)) {
+            return false;
+        }
+        publishedLikes = null;
+        return true;
+    }
+
+    public Film withoutLikes() {
+        Film copy = new Film();
+        copy.setId(id);
+        copy.assignFields(this);
+        copy.setLikesCount(likesCount);
+        return copy;
+    }
+
+    public void assignFields(Film source) {
+        name = source.getName();
+        description = source.getDescription();
+        releaseDate = source.getReleaseDate();
+        duration = source.getDuration();
     }
 
-    public void removeLike(int userId) {
-        likeScore.remove(userId);
+    public Film copy() {
+        Film copy = new Film();
+        copy.setId(id);
+        copy.setName(name);
+        copy.setDescription(description);
+        copy.setReleaseDate(releaseDate);
+        copy.setDuration(duration);
+        copy.setLikesCount(likesCount);
+        if (publishedLikes == null) {
+            publishedLikes = likeScore.share();
+        }
+        copy.likeScore = publishedLikes;
+        return copy;
     }
 }
@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.model;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+public record FilmFilter(@DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedFrom,
+                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate releasedTo,
+                         Integer minDuration,
+                         Integer maxDuration,
+                         String namePrefix) {
+    public static final FilmFilter NONE = new FilmFilter(null, null, null, null, null);
+
+    public FilmFilter {
+        namePrefix = namePrefix == null || namePrefix.isBlank() ? null : namePrefix.toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isEmpty() {
+        return releasedFrom == null && releasedTo == null && minDuration == null && maxDuration == null
+                && namePrefix == null;
+    }
+
+    public boolean matches(Film film) {
+        return (releasedFrom == null || !film.getReleaseDate().isBefore(releasedFrom))
+                && (releasedTo == null || !film.getReleaseDate().isAfter(releasedTo))
+                && (minDuration == null || film.getDuration() >= minDuration)
+                && (maxDuration == null || film.getDuration() <= maxDuration)
+                && (namePrefix == null || film.getName().toLowerCase(Locale.ROOT).startsWith(namePrefix));
+    }
+}
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FilmPatch(String name, String description, LocalDate releaseDate, Integer duration) {
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return name == null && description == null && releaseDate == null && duration == null;
+    }
+
+    public Film applyTo(Film film) {
+        if (name != null) {
+            film.setName(name);
+        }
+        if (description != null) {
+            film.setDescription(description);
+        }
+        if (releaseDate != null) {
+            film.setReleaseDate(releaseDate);
+        }
+        if (duration != null) {
+            film.setDuration(duration);
+        }
+        return film;
+    }
+
+    public static FilmPatch between(Film before, Film after) {
+        return new FilmPatch(
+                Objects.equals(before.getName(), after.getName()) ? null : after.getName(),
+                Objects.equals(before.getDescription(), after.getDescription()) ? null : after.getDescription(),
+                Objects.equals(before.getReleaseDate(), after.getReleaseDate()) ? null : after.getReleaseDate(),
+                before.getDuration() == after.getDuration() ? null : after.getDuration());
+    }
+}
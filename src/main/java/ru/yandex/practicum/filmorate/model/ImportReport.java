@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+@Getter
+public class ImportReport {
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final Comparator<LineError> BY_LINE = Comparator.comparingLong(LineError::line);
+
+    private long imported;
+    private long failed;
+    @Getter(AccessLevel.NONE)
+    private final PriorityQueue<LineError> errors = new PriorityQueue<>(BY_LINE.reversed());
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new LineError(line, message));
+        } else if (line < errors.peek().line()) {
+            errors.poll();
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    public List<LineError> getErrors() {
+        return errors.stream().sorted(BY_LINE).toList();
+    }
+
+    public record LineError(long line, String message) {
+    }
+}
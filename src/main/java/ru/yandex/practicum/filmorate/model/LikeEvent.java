@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.model;
+
+public record LikeEvent(int filmId, int userId, Op op) {
+
+    public enum Op {
+        LIKE,
+        UNLIKE
+    }
+}
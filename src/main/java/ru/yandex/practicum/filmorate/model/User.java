@@ -1,26 +1,85 @@
 package ru.yandex.practicum.filmorate.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import ru.yandex.practicum.filmorate.util.IntHashSet;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.time.LocalDate;
 
 
 @Data
+@JsonView(Views.Lean.class)
 public class User {
     private Integer id;
     private String email;
     private String login;
     private String name;
-    private String birthday;
+    private LocalDate birthday;
 
-    private Set<Integer> friendsList = new HashSet<>();
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @JsonView(Views.Full.class)
+    private IntHashSet friendsList = new IntHashSet();
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private IntHashSet publishedFriends;
+
+    public void setFriendsList(IntHashSet friendsList) {
+        this.friendsList = friendsList;
+        publishedFriends = null;
+    }
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public int getFriendsCount() {
+        return friendsList.size();
+    }
 
     public void addFriend(int friendId) {
-        friendsList.add(friendId);
+        if (friendsList.add(friendId)) {
+            publishedFriends = null;
+        }
     }
 
     public void removeFriend(int friendId) {
-        friendsList.remove(friendId);
+        if (friendsList.remove(friendId)) {
+            publishedFriends = null;
+        }
+    }
+
+    public User withoutFriends() {
+        User copy = new User();
+        copy.setId(id);
+        copy.assignFields(this);
+        return copy;
+    }
+
+    public void assignFields(User source) {
+        email = source.getEmail();
+        login = source.getLogin();
+        name = source.getName();
+        birthday = source.getBirthday();
+    }
+
+    public User copy() {
+        User copy = new User();
+        copy.setId(id);
+        copy.setEmail(email);
+        copy.setLogin(login);
+        copy.setName(name);
+        copy.setBirthday(birthday);
+        if (publishedFriends == null) {
+            publishedFriends = friendsList.share();
+        }
+        copy.friendsList = publishedFriends;
+        return copy;
     }
 }
@@ -0,0 +1,40 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserPatch(String email, String login, String name, LocalDate birthday) {
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return email == null && login == null && name == null && birthday == null;
+    }
+
+    public User applyTo(User user) {
+        if (email != null) {
+            user.setEmail(email);
+        }
+        if (login != null) {
+            user.setLogin(login);
+        }
+        if (name != null) {
+            user.setName(name);
+        }
+        if (birthday != null) {
+            user.setBirthday(birthday);
+        }
+        return user;
+    }
+
+    public static UserPatch between(User before, User after) {
+        return new UserPatch(
+                Objects.equals(before.getEmail(), after.getEmail()) ? null : after.getEmail(),
+                Objects.equals(before.getLogin(), after.getLogin()) ? null : after.getLogin(),
+                Objects.equals(before.getName(), after.getName()) ? null : after.getName(),
+                Objects.equals(before.getBirthday(), after.getBirthday()) ? null : after.getBirthday());
+    }
+}
@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+public final class Views {
+    public static final String PARAM = "view";
+    public static final String FULL = "full";
+    public static final String LEAN = "lean";
+
+    private Views() {
+    }
+
+    public static Class<?> parse(String view) {
+        if (view == null || FULL.equals(view)) {
+            return Full.class;
+        }
+        if (LEAN.equals(view)) {
+            return Lean.class;
+        }
+        throw new ValidationException("Представление должно быть " + FULL + " или " + LEAN);
+    }
+
+    public static ObjectWriter writer(ObjectMapper objectMapper, Class<?> type, String view) {
+        Class<?> active = parse(view);
+        ObjectWriter writer = objectMapper.writerFor(type);
+        return active == Full.class ? writer : writer.withView(active);
+    }
+
+    public interface Lean {
+    }
+
+    public interface Full extends Lean {
+    }
+}
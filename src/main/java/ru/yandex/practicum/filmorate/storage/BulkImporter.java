@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+@Slf4j
+public final class BulkImporter {
+    public static final String NDJSON = "application/x-ndjson";
+    public static final int BATCH_SIZE = 1000;
+
+    private BulkImporter() {
+    }
+
+    public static <T> ImportReport importLines(InputStream body, ObjectMapper objectMapper, Class<T> type,
+                                               BatchConsumer<T> consumer) {
+        ObjectReader reader = objectMapper.readerFor(type);
+        ImportReport report = new ImportReport();
+        List<T> batch = new ArrayList<>(BATCH_SIZE);
+        long[] lines = new long[BATCH_SIZE];
+        long lineNumber = 0;
+        try (BufferedReader lineReader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lineReader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                T record;
+                try {
+                    record = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    report.addError(lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (record == null) {
+                    report.addError(lineNumber, "Пустая запись");
+                    continue;
+                }
+                lines[batch.size()] = lineNumber;
+                batch.add(record);
+                if (batch.size() == BATCH_SIZE) {
+                    flush(batch, lines, consumer, report);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        flush(batch, lines, consumer, report);
+        log.info("Импорт {}: загружено {}, отклонено {}", type.getSimpleName(), report.getImported(),
+                report.getFailed());
+        return report;
+    }
+
+    public static String rejectionMessage(RuntimeException e) {
+        if (e instanceof ValidationException || e instanceof ConditionsNotMetException) {
+            return e.getMessage();
+        }
+        return "Некорректные данные";
+    }
+
+    private static <T> void flush(List<T> batch, long[] lines, BatchConsumer<T> consumer, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int[] rejected = {0};
+        consumer.accept(batch, (message, index) -> {
+            rejected[0]++;
+            report.addError(lines[index], message);
+        });
+        report.addImported(batch.size() - rejected[0]);
+        batch.clear();
+    }
+
+    @FunctionalInterface
+    public interface BatchConsumer<T> {
+        void accept(List<T> batch, ObjIntConsumer<String> onRejected);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+@Slf4j
+public final class PageStreamer {
+    public static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_PAGE_SIZE = 256;
+
+    private PageStreamer() {
+    }
+
+    public static void checkPage(int after, int limit) {
+        if (after < 0) {
+            log.error("Неверное значение after: {}", after);
+            throw new ValidationException("After не может быть отрицательным");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            log.error("Неверное значение limit: {}", limit);
+            throw new ValidationException("Limit должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> array(MediaType format, ObjectWriter writer, int after,
+                                                                  PageLoader<T> loader, ToIntFunction<T> idOf) {
+        checkPage(after, STREAM_PAGE_SIZE);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter sequence = writer.writeValuesAsArray(out)) {
+                int cursor = after;
+                List<T> page = loader.load(cursor, STREAM_PAGE_SIZE);
+                while (!page.isEmpty()) {
+                    for (T item : page) {
+                        sequence.write(item);
+                    }
+                    sequence.flush();
+                    if (page.size() < STREAM_PAGE_SIZE) {
+                        break;
+                    }
+                    cursor = idOf.applyAsInt(page.get(page.size() - 1));
+                    page = loader.load(cursor, STREAM_PAGE_SIZE);
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format)
+                .body(body);
+    }
+
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        List<T> load(int after, int limit);
+    }
+}
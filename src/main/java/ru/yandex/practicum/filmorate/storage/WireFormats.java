@@ -0,0 +1,70 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import ru.yandex.practicum.filmorate.model.Views;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class WireFormats {
+    public static final String SMILE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(SMILE);
+
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+
+    public WireFormats(ObjectMapper jsonMapper, ObjectMapper cborMapper, ObjectMapper smileMapper) {
+        mappers.put(MediaType.APPLICATION_JSON, jsonMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, cborMapper);
+        mappers.put(APPLICATION_SMILE, smileMapper);
+    }
+
+    public static boolean isBinary(String mediaType) {
+        if (mediaType == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(mediaType).stream().anyMatch(type ->
+                    type.isConcrete() && (type.isCompatibleWith(MediaType.APPLICATION_CBOR)
+                            || type.isCompatibleWith(APPLICATION_SMILE)));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    public ObjectMapper mapper(MediaType format) {
+        return mappers.get(format);
+    }
+
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType format : mappers.keySet()) {
+                if (type.isCompatibleWith(format)) {
+                    return format;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    public ObjectWriter writer(MediaType format, Class<?> type, String view) {
+        return Views.writer(mappers.get(format), type, view);
+    }
+}
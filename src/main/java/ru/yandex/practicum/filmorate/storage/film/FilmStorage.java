@@ -1,24 +1,50 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmPatch;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.LikeEvent;
 
-import java.util.Collection;
+import java.io.InputStream;
 import java.util.List;
 
 public interface FilmStorage {
-    Collection<Film> findAllFilms();
+    ResponseEntity<StreamingResponseBody> findAllFilms(int after, String view, FilmFilter filter, String accept);
+
+    List<Film> findFilms(int after, int limit, FilmFilter filter);
 
     Film addFilm(@RequestBody Film user);
 
     Film updateFilm(@RequestBody Film updUser);
 
+    FilmPatch patchFilm(int filmId, FilmPatch patch);
+
+    ImportReport importFilms(InputStream body);
+
     void addLike(Integer filmId, Integer userId);
 
+    ImportReport importLikes(InputStream body);
+
+    ImportReport applyLikeEvents(List<LikeEvent> events);
+
+    void enqueueLikeEvents(List<LikeEvent> events);
+
     void deleteLike(Integer filmId, Integer userId);
 
+    int[] findLikes(int filmId, int after, int limit);
+
     @GetMapping(value = "/popular")
-    List<Film> getPopularFilms(@RequestParam(defaultValue = "10") int count);
+    List<Film> getPopularFilms(@RequestParam(defaultValue = "10") int count, FilmFilter filter);
+
+    @GetMapping(value = "/search")
+    List<Film> searchFilms(@RequestParam String q, @RequestParam(defaultValue = "10") int count);
+
+    @GetMapping(value = "/popular", params = "window")
+    List<Film> getTrendingFilms(@RequestParam(defaultValue = "10") int count, @RequestParam String window);
 }
@@ -1,33 +1,74 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmPatch;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.LikeEvent;
+import ru.yandex.practicum.filmorate.model.Views;
+import ru.yandex.practicum.filmorate.storage.BulkImporter;
+import ru.yandex.practicum.filmorate.storage.PageStreamer;
+import ru.yandex.practicum.filmorate.storage.WireFormats;
 import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.LikeIngestionQueue;
+import ru.yandex.practicum.filmorate.storage.shard.ShardCoordinator;
 
-import java.util.Collection;
+import java.io.InputStream;
 import java.util.List;
 
 @Component
 @RestController
 @RequestMapping("/films")
 @RequiredArgsConstructor
+@Profile("!jdbc")
 public class InMemoryFilmStorage implements FilmStorage {
     private final FilmService filmService;
+    private final LikeIngestionQueue likeQueue;
+    private final ObjectMapper objectMapper;
+    private final WireFormats wireFormats;
+    private final ShardCoordinator shards;
 
     @GetMapping
     @Override
-    public Collection<Film> findAllFilms() {
-        return filmService.findAll();
+    public ResponseEntity<StreamingResponseBody> findAllFilms(@RequestParam(defaultValue = "0") int after,
+                                                              @RequestParam(defaultValue = Views.FULL) String view,
+                                                              FilmFilter filter,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        filmService.checkFilter(filter);
+        MediaType format = wireFormats.negotiate(accept);
+        return PageStreamer.array(format, wireFormats.writer(format, Film.class, view), after, shards.pages(
+                (cursor, limit) -> filmService.findPage(cursor, limit, filter), Film[].class, Film::getId), Film::getId);
+    }
+
+    @GetMapping(params = "limit")
+    @Override
+    public List<Film> findFilms(@RequestParam(defaultValue = "0") int after, @RequestParam int limit,
+                                FilmFilter filter) {
+        PageStreamer.checkPage(after, limit);
+        return shards.pages((cursor, size) -> filmService.findPage(cursor, size, filter), Film[].class, Film::getId)
+                .load(after, limit);
     }
 
     @PostMapping
@@ -36,27 +77,83 @@ public class InMemoryFilmStorage implements FilmStorage {
         return filmService.addFilm(film);
     }
 
+    @PostMapping(value = "/import", consumes = BulkImporter.NDJSON)
+    @Override
+    public ImportReport importFilms(InputStream body) {
+        return BulkImporter.importLines(body, objectMapper, Film.class, filmService::addFilms);
+    }
+
     @PutMapping
     @Override
     public Film updateFilm(@RequestBody Film updFilm) {
         return filmService.updateFilm(updFilm);
     }
 
+    @PatchMapping("/{filmId}")
+    @Override
+    public FilmPatch patchFilm(@PathVariable("filmId") int filmId, @RequestBody FilmPatch patch) {
+        return filmService.patchFilm(filmId, patch);
+    }
+
     @PutMapping(value = "/{filmId}/like/{userId}")
     @Override
     public void addLike(@PathVariable("filmId") Integer filmId, @PathVariable("userId") Integer userId) {
         filmService.addLike(filmId, userId);
     }
 
+    @PostMapping(value = "/likes/import", consumes = BulkImporter.NDJSON)
+    @Override
+    public ImportReport importLikes(InputStream body) {
+        return BulkImporter.importLines(body, objectMapper, Like.class, filmService::addLikes);
+    }
+
+    @PostMapping("/likes/batch")
+    @Override
+    public ImportReport applyLikeEvents(@RequestBody List<LikeEvent> events) {
+        filmService.checkLikeBatch(events);
+        ImportReport report = new ImportReport();
+        filmService.applyLikeEvents(events, (message, index) -> report.addError(index + 1, message));
+        report.addImported((int) (events.size() - report.getFailed()));
+        return report;
+    }
+
+    @PostMapping(value = "/likes/batch", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Override
+    public void enqueueLikeEvents(@RequestBody List<LikeEvent> events) {
+        filmService.checkQueuedLikeBatch(events);
+        likeQueue.submit(events);
+    }
+
     @DeleteMapping(value = "/{filmId}/like/{userId}")
     @Override
     public void deleteLike(@PathVariable("filmId") Integer filmId, @PathVariable("userId") Integer userId) {
         filmService.deleteLike(filmId, userId);
     }
 
+    @GetMapping(value = "/{filmId}/likes")
+    @Override
+    public int[] findLikes(@PathVariable("filmId") int filmId, @RequestParam(defaultValue = "0") int after,
+                           @RequestParam(defaultValue = "" + PageStreamer.MAX_PAGE_SIZE) int limit) {
+        PageStreamer.checkPage(after, limit);
+        return filmService.findLikes(filmId, after, limit);
+    }
+
     @GetMapping(value = "/popular")
     @Override
-    public List<Film> getPopularFilms(@RequestParam(defaultValue = "10") int count) {
-        return filmService.getPopularFilms(count);
+    public List<Film> getPopularFilms(@RequestParam(defaultValue = "10") int count, FilmFilter filter) {
+        return shards.popular(count, () -> filmService.getPopularFilms(count, filter));
+    }
+
+    @GetMapping(value = "/search")
+    @Override
+    public List<Film> searchFilms(@RequestParam String q, @RequestParam(defaultValue = "10") int count) {
+        return filmService.searchFilms(q, count);
+    }
+
+    @GetMapping(value = "/popular", params = "window")
+    @Override
+    public List<Film> getTrendingFilms(@RequestParam(defaultValue = "10") int count, @RequestParam String window) {
+        return filmService.getTrendingFilms(count, window);
     }
 }
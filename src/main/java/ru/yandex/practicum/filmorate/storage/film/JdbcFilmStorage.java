@@ -0,0 +1,482 @@
+package ru.yandex.practicum.filmorate.storage.film;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmPatch;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.LikeEvent;
+import ru.yandex.practicum.filmorate.model.Views;
+import ru.yandex.practicum.filmorate.storage.BulkImporter;
+import ru.yandex.practicum.filmorate.storage.PageStreamer;
+import ru.yandex.practicum.filmorate.storage.WireFormats;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.FilmTextIndex;
+import ru.yandex.practicum.filmorate.storage.service.TrendingIndex;
+import ru.yandex.practicum.filmorate.util.IntHashSet;
+
+import java.io.InputStream;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Component
+@RestController
+@RequestMapping("/films")
+@RequiredArgsConstructor
+@Profile("jdbc")
+public class JdbcFilmStorage implements FilmStorage {
+    private static final String SELECT_FILMS = "SELECT f.id, f.name, f.description, f.release_date, f.duration, "
+            + "ARRAY(SELECT l.user_id FROM likes l WHERE l.film_id = f.id ORDER BY l.user_id) AS likes "
+            + "FROM films f ";
+    private static final int SIMILAR_USERS = 50;
+    private static final int NAME_MATCH_WEIGHT = 3;
+    private static final String MERGE_LIKE = "MERGE INTO likes (film_id, user_id) KEY (film_id, user_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FilmService filmService;
+    private final ObjectMapper objectMapper;
+    private final WireFormats wireFormats;
+    private final TransactionTemplate transactionTemplate;
+
+    @GetMapping
+    @Override
+    public ResponseEntity<StreamingResponseBody> findAllFilms(@RequestParam(defaultValue = "0") int after,
+                                                              @RequestParam(defaultValue = Views.FULL) String view,
+                                                              FilmFilter filter,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        filmService.checkFilter(filter);
+        MediaType format = wireFormats.negotiate(accept);
+        return PageStreamer.array(format, wireFormats.writer(format, Film.class, view), after,
+                (cursor, limit) -> findPage(cursor, limit, filter), Film::getId);
+    }
+
+    @GetMapping(params = "limit")
+    @Override
+    public List<Film> findFilms(@RequestParam(defaultValue = "0") int after, @RequestParam int limit,
+                                FilmFilter filter) {
+        PageStreamer.checkPage(after, limit);
+        filmService.checkFilter(filter);
+        return findPage(after, limit, filter);
+    }
+
+    @PostMapping
+    @Override
+    public Film addFilm(@RequestBody Film film) {
+        filmService.checkName(film);
+        filmService.checkDate(film);
+        filmService.checkDuration(film);
+        filmService.checkLength(film);
+
+        Number id = new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("films")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(toParameters(film));
+        film.setId(id.intValue());
+        film.setLikeScore(new IntHashSet());
+        film.setLikesCount(0);
+        log.info("Добавлен фильм: {}, {}", film.getId(), film.getName());
+        return film;
+    }
+
+    @PostMapping(value = "/import", consumes = BulkImporter.NDJSON)
+    @Override
+    public ImportReport importFilms(InputStream body) {
+        return BulkImporter.importLines(body, objectMapper, Film.class,
+                (batch, onRejected) -> transactionTemplate.executeWithoutResult(
+                        status -> addFilms(batch, onRejected)));
+    }
+
+    @PutMapping
+    @Override
+    public Film updateFilm(@RequestBody Film updFilm) {
+        filmService.checkId(updFilm.getId());
+        checkFilmExists(updFilm.getId());
+        filmService.checkDate(updFilm);
+        filmService.checkDuration(updFilm);
+        filmService.checkLength(updFilm);
+
+        jdbcTemplate.update("UPDATE films SET name = COALESCE(NULLIF(?, ''), name), "
+                        + "description = COALESCE(?, description), release_date = COALESCE(?, release_date), "
+                        + "duration = ? WHERE id = ?",
+                updFilm.getName(), updFilm.getDescription(), updFilm.getReleaseDate(), updFilm.getDuration(),
+                updFilm.getId());
+        log.info("Обновлён фильм: {}, {}", updFilm.getId(), updFilm.getName());
+        return findById(updFilm.getId());
+    }
+
+    @PatchMapping("/{filmId}")
+    @Transactional
+    @Override
+    public FilmPatch patchFilm(@PathVariable("filmId") int filmId, @RequestBody FilmPatch patch) {
+        checkFilmExists(filmId);
+        Film stored = jdbcTemplate.queryForObject("SELECT id, name, description, release_date, duration FROM films "
+                + "WHERE id = ? FOR UPDATE", this::mapFields, filmId);
+        Film patched = patch.applyTo(stored.withoutLikes());
+        filmService.checkName(patched);
+        filmService.checkDate(patched);
+        filmService.checkDuration(patched);
+        filmService.checkLength(patched);
+
+        FilmPatch changes = FilmPatch.between(stored, patched);
+        if (!changes.isEmpty()) {
+            jdbcTemplate.update("UPDATE films SET name = ?, description = ?, release_date = ?, duration = ? "
+                            + "WHERE id = ?",
+                    patched.getName(), patched.getDescription(), patched.getReleaseDate(), patched.getDuration(),
+                    filmId);
+            log.info("Изменён фильм: {}, {}", filmId, changes);
+        }
+        return changes;
+    }
+
+    @PutMapping(value = "/{filmId}/like/{userId}")
+    @Override
+    public void addLike(@PathVariable("filmId") Integer filmId, @PathVariable("userId") Integer userId) {
+        filmService.checkId(filmId);
+        checkFilmExists(filmId);
+        checkUserExists(userId);
+        jdbcTemplate.update(MERGE_LIKE, filmId, userId);
+        log.info("Пользователь {} поставил лайк фильму {}", userId, filmId);
+    }
+
+    @PostMapping(value = "/likes/import", consumes = BulkImporter.NDJSON)
+    @Override
+    public ImportReport importLikes(InputStream body) {
+        return BulkImporter.importLines(body, objectMapper, Like.class,
+                (batch, onRejected) -> transactionTemplate.executeWithoutResult(
+                        status -> addLikes(batch, onRejected)));
+    }
+
+    @PostMapping("/likes/batch")
+    @Transactional
+    @Override
+    public ImportReport applyLikeEvents(@RequestBody List<LikeEvent> events) {
+        filmService.checkLikeBatch(events);
+        ImportReport report = new ImportReport();
+        IntHashSet filmIds = existingIds("films", events.stream().filter(Objects::nonNull).mapToInt(LikeEvent::filmId));
+        IntHashSet userIds = existingIds("users", events.stream().filter(Objects::nonNull).mapToInt(LikeEvent::userId));
+        Map<Like, LikeEvent.Op> latest = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            LikeEvent event = events.get(i);
+            if (event == null || event.op() == null) {
+                report.addError(i + 1, "Операция должна быть указана");
+            } else if (!filmIds.contains(event.filmId())) {
+                report.addError(i + 1, "Фильма с таким Id не существует: " + event.filmId());
+            } else if (!userIds.contains(event.userId())) {
+                report.addError(i + 1, "Пользователя с таким Id не существует: " + event.userId());
+            } else {
+                latest.put(new Like(event.filmId(), event.userId()), event.op());
+            }
+        }
+        List<Like> liked = new ArrayList<>();
+        List<Like> unliked = new ArrayList<>();
+        latest.forEach((like, op) -> (op == LikeEvent.Op.LIKE ? liked : unliked).add(like));
+        addLikes(liked);
+        jdbcTemplate.batchUpdate("DELETE FROM likes WHERE film_id = ? AND user_id = ?", unliked, unliked.size(),
+                (ps, like) -> {
+                    ps.setInt(1, like.filmId());
+                    ps.setInt(2, like.userId());
+                });
+        report.addImported((int) (events.size() - report.getFailed()));
+        return report;
+    }
+
+    @PostMapping(value = "/likes/batch", params = "async=true")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Transactional
+    @Override
+    public void enqueueLikeEvents(@RequestBody List<LikeEvent> events) {
+        applyLikeEvents(events);
+    }
+
+    @DeleteMapping(value = "/{filmId}/like/{userId}")
+    @Override
+    public void deleteLike(@PathVariable("filmId") Integer filmId, @PathVariable("userId") Integer userId) {
+        filmService.checkId(filmId);
+        checkFilmExists(filmId);
+        checkUserExists(userId);
+        jdbcTemplate.update("DELETE FROM likes WHERE film_id = ? AND user_id = ?", filmId, userId);
+        log.info("Пользователь {} удалил лайк фильму {}", userId, filmId);
+    }
+
+    @GetMapping(value = "/{filmId}/likes")
+    @Override
+    public int[] findLikes(@PathVariable("filmId") int filmId, @RequestParam(defaultValue = "0") int after,
+                           @RequestParam(defaultValue = "" + PageStreamer.MAX_PAGE_SIZE) int limit) {
+        PageStreamer.checkPage(after, limit);
+        checkFilmExists(filmId);
+        return jdbcTemplate.queryForList("SELECT user_id FROM likes WHERE film_id = ? AND user_id > ? "
+                        + "ORDER BY user_id LIMIT ?", Integer.class, filmId, after, limit).stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @GetMapping(value = "/popular")
+    @Override
+    public List<Film> getPopularFilms(@RequestParam(defaultValue = "10") int count, FilmFilter filter) {
+        if (count <= 0) {
+            log.error("Неверное значение count: {}", count);
+            throw new ValidationException("Count должен быть больше 0");
+        }
+        filmService.checkFilter(filter);
+        log.info("Получение {} популярных фильмов", count);
+        List<Object> args = new ArrayList<>();
+        String where = filterClause(filter, "f2", args);
+        args.add(count);
+        return jdbcTemplate.query(SELECT_FILMS
+                + "JOIN (SELECT f2.id AS film_id, COUNT(l.user_id) AS likes_count FROM films f2 "
+                + "LEFT JOIN likes l ON l.film_id = f2.id WHERE " + where
+                + " GROUP BY f2.id ORDER BY likes_count DESC, f2.id LIMIT ?) t "
+                + "ON t.film_id = f.id ORDER BY t.likes_count DESC, f.id", this::mapFilm, args.toArray());
+    }
+
+    @GetMapping(value = "/search")
+    @Override
+    public List<Film> searchFilms(@RequestParam String q, @RequestParam(defaultValue = "10") int count) {
+        filmService.checkSearch(q, count);
+        log.info("Поиск {} фильмов по запросу {}", count, q);
+        List<String> terms = FilmTextIndex.tokens(q).stream().distinct().toList();
+        StringBuilder score = new StringBuilder("0");
+        List<Object> args = new ArrayList<>();
+        for (String term : terms) {
+            String pattern = "%" + term.replaceAll("([\\\\%_])", "\\\\$1") + "%";
+            score.append(" + CASE WHEN LOWER(f2.name) LIKE ? ESCAPE '\\' THEN ").append(NAME_MATCH_WEIGHT)
+                    .append(" ELSE 0 END + CASE WHEN LOWER(f2.description) LIKE ? ESCAPE '\\' THEN 1 ELSE 0 END");
+            args.add(pattern);
+            args.add(pattern);
+        }
+        args.add(count);
+        return jdbcTemplate.query(SELECT_FILMS
+                + "JOIN (SELECT f2.id AS film_id, " + score + " AS score FROM films f2) t "
+                + "ON t.film_id = f.id WHERE t.score > 0 ORDER BY t.score DESC, f.id LIMIT ?", this::mapFilm,
+                args.toArray());
+    }
+
+    @GetMapping(value = "/popular", params = "window")
+    @Override
+    public List<Film> getTrendingFilms(@RequestParam(defaultValue = "10") int count, @RequestParam String window) {
+        if (count <= 0) {
+            log.error("Неверное значение count: {}", count);
+            throw new ValidationException("Count должен быть больше 0");
+        }
+        TrendingIndex.Window trendingWindow = TrendingIndex.Window.parse(window);
+        log.info("Получение {} популярных фильмов за {}", count, window);
+        return jdbcTemplate.query(SELECT_FILMS
+                + "JOIN (SELECT l.film_id, COUNT(*) AS likes_count FROM likes l "
+                + "WHERE l.liked_at >= DATEADD('HOUR', -?, LOCALTIMESTAMP) "
+                + "GROUP BY l.film_id ORDER BY likes_count DESC, l.film_id LIMIT ?) t "
+                + "ON t.film_id = f.id ORDER BY t.likes_count DESC, f.id", this::mapFilm,
+                trendingWindow.getHours(), count);
+    }
+
+    public List<Film> findRecommendations(int userId, int count) {
+        checkUserExists(userId);
+        if (count <= 0) {
+            log.error("Неверное значение count: {}", count);
+            throw new ValidationException("Count должен быть больше 0");
+        }
+        log.info("Получение рекомендаций для пользователя {}", userId);
+        return jdbcTemplate.query(SELECT_FILMS
+                        + "JOIN (SELECT l.film_id, SUM(s.overlap) AS score FROM likes l "
+                        + "JOIN (SELECT o.user_id, COUNT(*) AS overlap FROM likes o "
+                        + "JOIN likes mine ON mine.film_id = o.film_id AND mine.user_id = ? "
+                        + "WHERE o.user_id <> mine.user_id GROUP BY o.user_id "
+                        + "ORDER BY overlap DESC, o.user_id LIMIT " + SIMILAR_USERS + ") s ON s.user_id = l.user_id "
+                        + "WHERE NOT EXISTS (SELECT 1 FROM likes m WHERE m.user_id = ? AND m.film_id = l.film_id) "
+                        + "GROUP BY l.film_id ORDER BY score DESC, l.film_id LIMIT ?) sc "
+                        + "ON sc.film_id = f.id ORDER BY sc.score DESC, f.id",
+                this::mapFilm, userId, userId, count);
+    }
+
+    private void addFilms(List<Film> batch, ObjIntConsumer<String> onRejected) {
+        List<Film> valid = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Film film = batch.get(i);
+            try {
+                filmService.checkName(film);
+                filmService.checkDate(film);
+                filmService.checkDuration(film);
+                filmService.checkLength(film);
+                valid.add(film);
+            } catch (RuntimeException e) {
+                onRejected.accept(BulkImporter.rejectionMessage(e), i);
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO films (name, description, release_date, duration) VALUES (?, ?, ?, ?)",
+                valid, valid.size(), (ps, film) -> {
+                    ps.setString(1, film.getName());
+                    ps.setString(2, film.getDescription());
+                    ps.setObject(3, film.getReleaseDate());
+                    ps.setInt(4, film.getDuration());
+                });
+    }
+
+    private void addLikes(List<Like> batch, ObjIntConsumer<String> onRejected) {
+        IntHashSet filmIds = existingIds("films", batch.stream().mapToInt(Like::filmId));
+        IntHashSet userIds = existingIds("users", batch.stream().mapToInt(Like::userId));
+        List<Like> valid = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Like like = batch.get(i);
+            if (!filmIds.contains(like.filmId())) {
+                onRejected.accept("Фильма с таким Id не существует: " + like.filmId(), i);
+            } else if (!userIds.contains(like.userId())) {
+                onRejected.accept("Пользователя с таким Id не существует: " + like.userId(), i);
+            } else {
+                valid.add(like);
+            }
+        }
+        addLikes(valid);
+    }
+
+    @Transactional
+    public void addLikes(Collection<Like> likes) {
+        jdbcTemplate.batchUpdate(MERGE_LIKE, likes, likes.size(), (ps, like) -> {
+            ps.setInt(1, like.filmId());
+            ps.setInt(2, like.userId());
+        });
+    }
+
+    private List<Film> findPage(int after, int limit, FilmFilter filter) {
+        List<Object> args = new ArrayList<>();
+        args.add(after);
+        String where = filterClause(filter, "f", args);
+        args.add(limit);
+        return jdbcTemplate.query(SELECT_FILMS + "WHERE f.id > ? AND " + where + " ORDER BY f.id LIMIT ?",
+                this::mapFilm, args.toArray());
+    }
+
+    private static String filterClause(FilmFilter filter, String alias, List<Object> args) {
+        StringBuilder where = new StringBuilder("TRUE");
+        if (filter.releasedFrom() != null) {
+            where.append(" AND ").append(alias).append(".release_date >= ?");
+            args.add(filter.releasedFrom());
+        }
+        if (filter.releasedTo() != null) {
+            where.append(" AND ").append(alias).append(".release_date <= ?");
+            args.add(filter.releasedTo());
+        }
+        if (filter.minDuration() != null) {
+            where.append(" AND ").append(alias).append(".duration >= ?");
+            args.add(filter.minDuration());
+        }
+        if (filter.maxDuration() != null) {
+            where.append(" AND ").append(alias).append(".duration <= ?");
+            args.add(filter.maxDuration());
+        }
+        if (filter.namePrefix() != null) {
+            where.append(" AND LOWER(").append(alias).append(".name) LIKE ? ESCAPE '\\'");
+            args.add(filter.namePrefix().replaceAll("([\\\\%_])", "\\\\$1") + "%");
+        }
+        return where.toString();
+    }
+
+    private Film findById(int filmId) {
+        return jdbcTemplate.queryForObject(SELECT_FILMS + "WHERE f.id = ?", this::mapFilm, filmId);
+    }
+
+    private void checkFilmExists(int filmId) {
+        if (!exists("films", filmId)) {
+            log.error("Фильма с этим Id не существует: {}", filmId);
+            throw new ConditionsNotMetException("Фильма с таким Id не существует: " + filmId);
+        }
+    }
+
+    private void checkUserExists(Integer userId) {
+        if (userId == null || !exists("users", userId)) {
+            log.error("Пользователя с Id {} не существует", userId);
+            throw new ConditionsNotMetException("Пользователя с таким Id не существует: " + userId);
+        }
+    }
+
+    private IntHashSet existingIds(String table, IntStream ids) {
+        Integer[] distinct = ids.distinct().boxed().toArray(Integer[]::new);
+        IntHashSet existing = new IntHashSet(distinct.length);
+        jdbcTemplate.query("SELECT id FROM " + table + " WHERE id = ANY(?)",
+                rs -> {
+                    existing.add(rs.getInt(1));
+                }, (Object) distinct);
+        return existing;
+    }
+
+    private boolean exists(String table, int id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + " WHERE id = ?)", Boolean.class, id));
+    }
+
+    private Film mapFilm(ResultSet rs, int rowNum) throws SQLException {
+        Film film = mapFields(rs, rowNum);
+        film.setLikeScore(toIds(rs.getArray("likes")));
+        film.setLikesCount(film.getLikeScore().size());
+        return film;
+    }
+
+    private Film mapFields(ResultSet rs, int rowNum) throws SQLException {
+        Film film = new Film();
+        film.setId(rs.getInt("id"));
+        film.setName(rs.getString("name"));
+        film.setDescription(rs.getString("description"));
+        film.setReleaseDate(rs.getObject("release_date", LocalDate.class));
+        film.setDuration(rs.getInt("duration"));
+        return film;
+    }
+
+    private static IntHashSet toIds(Array array) throws SQLException {
+        if (array == null) {
+            return new IntHashSet();
+        }
+        Object[] values = (Object[]) array.getArray();
+        IntHashSet ids = new IntHashSet(values.length);
+        for (Object value : values) {
+            ids.add(((Number) value).intValue());
+        }
+        return ids;
+    }
+
+    private static Map<String, Object> toParameters(Film film) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("name", film.getName());
+        parameters.put("description", film.getDescription());
+        parameters.put("release_date", film.getReleaseDate());
+        parameters.put("duration", film.getDuration());
+        return parameters;
+    }
+}
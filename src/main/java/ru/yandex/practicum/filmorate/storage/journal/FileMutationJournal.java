@@ -0,0 +1,554 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+@Slf4j
+public class FileMutationJournal implements MutationJournal, AutoCloseable {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOT_MAGIC = 0x464C4D53;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int FRAME_HEADER = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final Duration snapshotInterval;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingChanged = lock.newCondition();
+    private final Condition durableChanged = lock.newCondition();
+    private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+
+    private List<byte[]> pending = new ArrayList<>();
+    private long lastLsn;
+    private long durableLsn;
+    private boolean rotateRequested;
+    private boolean running;
+    private IOException failure;
+
+    private FileChannel segment;
+    private Thread writer;
+    private ScheduledExecutorService snapshotScheduler;
+    private JournalSnapshotSource snapshotSource;
+
+    public FileMutationJournal(Path directory, Duration snapshotInterval) {
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public void recover(MutationJournal target) {
+        try {
+            Files.createDirectories(directory);
+            long[] rejectedLsn = new long[1];
+            long snapshotLsn = loadLatestSnapshot(target, rejectedLsn);
+            lastLsn = snapshotLsn;
+            List<Path> segments = listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            long replayed = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                long startLsn = startLsn(segments.get(i), SEGMENT_PREFIX, SEGMENT_SUFFIX);
+                if (startLsn > lastLsn + 1) {
+                    throw new IOException("В журнале нет записей с LSN " + (lastLsn + 1) + " по " + (startLsn - 1));
+                }
+                replayed += replaySegment(segments.get(i), snapshotLsn, target, i == segments.size() - 1);
+            }
+            if (lastLsn < rejectedLsn[0]) {
+                throw new IOException("Снимок до LSN " + rejectedLsn[0]
+                        + " повреждён, а записей журнала для восстановления без него нет");
+            }
+            durableLsn = lastLsn;
+            log.info("Журнал восстановлен: снимок до LSN {}, повторено записей {}, последний LSN {}",
+                    snapshotLsn, replayed, lastLsn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось восстановить данные из журнала " + directory, e);
+        }
+    }
+
+    public void start(JournalSnapshotSource source) {
+        try {
+            snapshotSource = source;
+            segment = openSegment(lastLsn + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("journal-writer").daemon().start(this::writeLoop);
+        if (!snapshotInterval.isZero() && !snapshotInterval.isNegative()) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+                    runnable -> Thread.ofPlatform().name("journal-snapshot").daemon().unstarted(runnable));
+            long period = snapshotInterval.toMillis();
+            snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void filmAdded(Film film) {
+        append(JournalCodec.film(JournalCodec.FILM_ADDED, film));
+    }
+
+    @Override
+    public void filmUpdated(Film film) {
+        append(JournalCodec.film(JournalCodec.FILM_UPDATED, film));
+    }
+
+    @Override
+    public void filmChanged(Film film) {
+        append(JournalCodec.film(JournalCodec.FILM_CHANGED, film.withoutLikes()));
+    }
+
+    @Override
+    public void likeAdded(int filmId, int userId) {
+        append(JournalCodec.edge(JournalCodec.LIKE_ADDED, filmId, userId));
+    }
+
+    @Override
+    public void likeRemoved(int filmId, int userId) {
+        append(JournalCodec.edge(JournalCodec.LIKE_REMOVED, filmId, userId));
+    }
+
+    @Override
+    public void userAdded(User user) {
+        append(JournalCodec.user(JournalCodec.USER_ADDED, user));
+    }
+
+    @Override
+    public void userUpdated(User user) {
+        append(JournalCodec.user(JournalCodec.USER_UPDATED, user));
+    }
+
+    @Override
+    public void userChanged(User user) {
+        append(JournalCodec.user(JournalCodec.USER_CHANGED, user.withoutFriends()));
+    }
+
+    @Override
+    public void friendAdded(int userId, int friendId) {
+        append(JournalCodec.edge(JournalCodec.FRIEND_ADDED, userId, friendId));
+    }
+
+    @Override
+    public void friendRemoved(int userId, int friendId) {
+        append(JournalCodec.edge(JournalCodec.FRIEND_REMOVED, userId, friendId));
+    }
+
+    @Override
+    public void awaitDurable() {
+        long[] appended = lastAppended.get();
+        long lsn = appended[0];
+        if (lsn == 0) {
+            return;
+        }
+        appended[0] = 0;
+        lock.lock();
+        try {
+            while (durableLsn < lsn && failure == null) {
+                durableChanged.awaitUninterruptibly();
+            }
+            if (durableLsn < lsn) {
+                throw new UncheckedIOException("Запись в журнал не удалась", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void snapshot() throws IOException {
+        long snapshotLsn = rotate();
+        Path target = directory.resolve(fileName(SNAPSHOT_PREFIX, snapshotLsn, SNAPSHOT_SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long[] records = new long[1];
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CRC32C crc = new CRC32C();
+            OutputStream raw = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(raw, crc),
+                    1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(snapshotLsn);
+            snapshotSource.export(new MutationJournal() {
+                @Override
+                public void filmAdded(Film film) {
+                    writeSnapshotRecord(out, JournalCodec.FILM_ADDED, film, null);
+                    records[0]++;
+                }
+
+                @Override
+                public void userAdded(User user) {
+                    writeSnapshotRecord(out, JournalCodec.USER_ADDED, null, user);
+                    records[0]++;
+                }
+            });
+            out.writeByte(JournalCodec.END);
+            out.flush();
+            new DataOutputStream(raw).writeLong(crc.getValue());
+            channel.force(true);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        if (!isValidSnapshot(target)) {
+            throw new IOException("Снимок журнала не прошёл проверку: " + target);
+        }
+        deleteObsoleteFiles(snapshotLsn);
+        log.info("Снимок журнала записан: LSN {}, объектов {}", snapshotLsn, records[0]);
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            pendingChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            if (segment != null) {
+                segment.close();
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось закрыть сегмент журнала", e);
+        }
+    }
+
+    private void append(byte[] payload) {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new UncheckedIOException("Журнал недоступен", failure);
+            }
+            if (!running) {
+                throw new IllegalStateException("Журнал не запущен");
+            }
+            pending.add(payload);
+            lastAppended.get()[0] = ++lastLsn;
+            pendingChanged.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long rotate() {
+        lock.lock();
+        try {
+            rotateRequested = true;
+            pendingChanged.signal();
+            while (rotateRequested && failure == null) {
+                durableChanged.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Журнал недоступен", failure);
+            }
+            return durableLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        while (true) {
+            List<byte[]> batch;
+            long firstLsn;
+            boolean rotate;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !rotateRequested && running) {
+                    pendingChanged.awaitUninterruptibly();
+                }
+                if (pending.isEmpty() && !rotateRequested) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                firstLsn = lastLsn - batch.size() + 1;
+                rotate = rotateRequested;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                buffer = writeBatch(batch, firstLsn, buffer);
+                long batchLastLsn = firstLsn + batch.size() - 1;
+                if (rotate) {
+                    segment.close();
+                    segment = openSegment(batchLastLsn + 1);
+                }
+                lock.lock();
+                try {
+                    durableLsn = batchLastLsn;
+                    if (rotate) {
+                        rotateRequested = false;
+                    }
+                    durableChanged.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (IOException e) {
+                log.error("Ошибка записи журнала", e);
+                lock.lock();
+                try {
+                    failure = e;
+                    durableChanged.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    private ByteBuffer writeBatch(List<byte[]> batch, long firstLsn, ByteBuffer buffer) throws IOException {
+        if (batch.isEmpty()) {
+            return buffer;
+        }
+        CRC32C crc = new CRC32C();
+        byte[] scratch = new byte[Long.BYTES];
+        long lsn = firstLsn;
+        for (byte[] payload : batch) {
+            int frameSize = FRAME_HEADER + payload.length;
+            if (buffer.remaining() < frameSize) {
+                flush(buffer);
+                if (buffer.capacity() < frameSize) {
+                    buffer = ByteBuffer.allocateDirect(frameSize);
+                }
+            }
+            buffer.putInt(payload.length).putLong(lsn).putInt(checksum(crc, scratch, lsn, payload)).put(payload);
+            lsn++;
+        }
+        flush(buffer);
+        segment.force(false);
+        return buffer;
+    }
+
+    private void flush(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private long loadLatestSnapshot(MutationJournal target, long[] rejectedLsn) throws IOException {
+        List<Path> snapshots = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Path snapshot = snapshots.get(i);
+            if (!isValidSnapshot(snapshot)) {
+                log.warn("Снимок {} повреждён и будет пропущен", snapshot);
+                rejectedLsn[0] = Math.max(rejectedLsn[0], startLsn(snapshot, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot),
+                    1 << 16))) {
+                in.readInt();
+                in.readInt();
+                long snapshotLsn = in.readLong();
+                byte type;
+                while ((type = in.readByte()) != JournalCodec.END) {
+                    JournalCodec.decode(type, in, target);
+                }
+                return snapshotLsn;
+            }
+        }
+        return 0;
+    }
+
+    private boolean isValidSnapshot(Path snapshot) throws IOException {
+        long size = Files.size(snapshot);
+        if (size < Integer.BYTES * 2 + Long.BYTES * 2) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        try (InputStream in = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(snapshot),
+                1 << 16), crc)) {
+            DataInputStream data = new DataInputStream(in);
+            if (data.readInt() != SNAPSHOT_MAGIC || data.readInt() != SNAPSHOT_VERSION) {
+                return false;
+            }
+            long remaining = size - Long.BYTES - Integer.BYTES * 2;
+            byte[] chunk = new byte[1 << 16];
+            while (remaining > 0) {
+                int read = in.read(chunk, 0, (int) Math.min(chunk.length, remaining));
+                if (read < 0) {
+                    return false;
+                }
+                remaining -= read;
+            }
+            long expected = crc.getValue();
+            return data.readLong() == expected;
+        }
+    }
+
+    private long replaySegment(Path path, long afterLsn, MutationJournal target, boolean last) throws IOException {
+        long replayed = 0;
+        long validBytes = 0;
+        long size = Files.size(path);
+        CRC32C crc = new CRC32C();
+        byte[] scratch = new byte[Long.BYTES];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                int length;
+                long lsn;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    lsn = in.readLong();
+                    checksum = in.readInt();
+                    if (length <= 0 || length > size) {
+                        throw new EOFException();
+                    }
+                    payload = in.readNBytes(length);
+                    if (payload.length < length) {
+                        throw new EOFException();
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                if (checksum(crc, scratch, lsn, payload) != checksum) {
+                    break;
+                }
+                validBytes += FRAME_HEADER + length;
+                if (lsn > afterLsn) {
+                    JournalCodec.decode(payload, target);
+                    replayed++;
+                }
+                lastLsn = Math.max(lastLsn, lsn);
+            }
+        }
+        if (validBytes < size) {
+            if (!last) {
+                throw new IOException("Сегмент журнала повреждён: " + path);
+            }
+            log.warn("Обрезан незавершённый хвост сегмента {}: {} байт", path, size - validBytes);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validBytes);
+                channel.force(true);
+            }
+        }
+        return replayed;
+    }
+
+    private FileChannel openSegment(long startLsn) throws IOException {
+        Path path = directory.resolve(fileName(SEGMENT_PREFIX, startLsn, SEGMENT_SUFFIX));
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void deleteObsoleteFiles(long snapshotLsn) throws IOException {
+        long retainedLsn = 0;
+        for (Path snapshot : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            long lsn = startLsn(snapshot, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            if (lsn < snapshotLsn) {
+                retainedLsn = Math.max(retainedLsn, lsn);
+            }
+        }
+        if (retainedLsn == 0) {
+            return;
+        }
+        for (Path segmentPath : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (startLsn(segmentPath, SEGMENT_PREFIX, SEGMENT_SUFFIX) <= retainedLsn) {
+                Files.deleteIfExists(segmentPath);
+            }
+        }
+        for (Path snapshot : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (startLsn(snapshot, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < retainedLsn) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.error("Не удалось записать снимок журнала", e);
+        }
+    }
+
+    private List<Path> listFiles(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix) && name.endsWith(suffix);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void writeSnapshotRecord(DataOutputStream out, byte type, Film film, User user) {
+        try {
+            out.writeByte(type);
+            if (film != null) {
+                JournalCodec.writeFilm(out, film);
+            } else {
+                JournalCodec.writeUser(out, user);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long startLsn(Path path, String prefix, String suffix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private static String fileName(String prefix, long lsn, String suffix) {
+        return String.format("%s%020d%s", prefix, lsn, suffix);
+    }
+
+    private static int checksum(CRC32C crc, byte[] scratch, long lsn, byte[] payload) {
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            scratch[i] = (byte) lsn;
+            lsn >>>= 8;
+        }
+        crc.reset();
+        crc.update(scratch);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
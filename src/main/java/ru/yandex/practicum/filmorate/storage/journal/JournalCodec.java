@@ -0,0 +1,182 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.util.IntHashSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+final class JournalCodec {
+    static final byte END = 0;
+    static final byte FILM_ADDED = 1;
+    static final byte FILM_UPDATED = 2;
+    static final byte LIKE_ADDED = 3;
+    static final byte LIKE_REMOVED = 4;
+    static final byte USER_ADDED = 5;
+    static final byte USER_UPDATED = 6;
+    static final byte FRIEND_ADDED = 7;
+    static final byte FRIEND_REMOVED = 8;
+    static final byte FILM_CHANGED = 9;
+    static final byte USER_CHANGED = 10;
+
+    private static final byte NULL_STRING = 0;
+    private static final byte SHORT_UTF_STRING = 1;
+    private static final byte UTF8_STRING = 2;
+
+    private JournalCodec() {
+    }
+
+    static byte[] film(byte type, Film film) {
+        return encode(type, out -> writeFilm(out, film));
+    }
+
+    static byte[] user(byte type, User user) {
+        return encode(type, out -> writeUser(out, user));
+    }
+
+    static byte[] edge(byte type, int firstId, int secondId) {
+        return encode(type, out -> {
+            out.writeInt(firstId);
+            out.writeInt(secondId);
+        });
+    }
+
+    static void decode(byte[] payload, MutationJournal target) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        decode(in.readByte(), in, target);
+    }
+
+    static void decode(byte type, DataInput in, MutationJournal target) throws IOException {
+        switch (type) {
+            case FILM_ADDED -> target.filmAdded(readFilm(in));
+            case FILM_UPDATED -> target.filmUpdated(readFilm(in));
+            case LIKE_ADDED -> target.likeAdded(in.readInt(), in.readInt());
+            case LIKE_REMOVED -> target.likeRemoved(in.readInt(), in.readInt());
+            case USER_ADDED -> target.userAdded(readUser(in));
+            case USER_UPDATED -> target.userUpdated(readUser(in));
+            case FRIEND_ADDED -> target.friendAdded(in.readInt(), in.readInt());
+            case FRIEND_REMOVED -> target.friendRemoved(in.readInt(), in.readInt());
+            case FILM_CHANGED -> target.filmChanged(readFilm(in));
+            case USER_CHANGED -> target.userChanged(readUser(in));
+            default -> throw new IOException("Неизвестный тип записи журнала: " + type);
+        }
+    }
+
+    static void writeFilm(DataOutput out, Film film) throws IOException {
+        out.writeInt(film.getId());
+        writeString(out, film.getName());
+        writeString(out, film.getDescription());
+        out.writeLong(film.getReleaseDate() == null ? Long.MIN_VALUE : film.getReleaseDate().toEpochDay());
+        out.writeInt(film.getDuration());
+        out.writeInt(film.getLikesCount());
+        writeIds(out, film.getLikeScore());
+    }
+
+    static Film readFilm(DataInput in) throws IOException {
+        Film film = new Film();
+        film.setId(in.readInt());
+        film.setName(readString(in));
+        film.setDescription(readString(in));
+        long releaseDate = in.readLong();
+        film.setReleaseDate(releaseDate == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(releaseDate));
+        film.setDuration(in.readInt());
+        film.setLikesCount(in.readInt());
+        film.setLikeScore(readIds(in));
+        return film;
+    }
+
+    static void writeUser(DataOutput out, User user) throws IOException {
+        out.writeInt(user.getId());
+        writeString(out, user.getEmail());
+        writeString(out, user.getLogin());
+        writeString(out, user.getName());
+        writeString(out, user.getBirthday() == null ? null : user.getBirthday().toString());
+        writeIds(out, user.getFriendsList());
+    }
+
+    static User readUser(DataInput in) throws IOException {
+        User user = new User();
+        user.setId(in.readInt());
+        user.setEmail(readString(in));
+        user.setLogin(readString(in));
+        user.setName(readString(in));
+        String birthday = readString(in);
+        user.setBirthday(birthday == null ? null : LocalDate.parse(birthday));
+        user.setFriendsList(readIds(in));
+        return user;
+    }
+
+    private static byte[] encode(byte type, Encoder encoder) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            encoder.write(out);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(UTF8_STRING);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte kind = in.readByte();
+        return switch (kind) {
+            case NULL_STRING -> null;
+            case SHORT_UTF_STRING -> in.readUTF();
+            case UTF8_STRING -> readUtf8(in);
+            default -> throw new IOException("Неизвестный формат строки в журнале: " + kind);
+        };
+    }
+
+    private static String readUtf8(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Неверная длина строки в журнале: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeIds(DataOutput out, IntHashSet ids) throws IOException {
+        int[] values = ids == null ? new int[0] : ids.toArray();
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static IntHashSet readIds(DataInput in) throws IOException {
+        int size = in.readInt();
+        IntHashSet ids = new IntHashSet(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(in.readInt());
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        void write(DataOutput out) throws IOException;
+    }
+}
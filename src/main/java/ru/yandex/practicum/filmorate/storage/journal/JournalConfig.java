@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+public class JournalConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "filmorate.journal.enabled", havingValue = "true")
+    public FileMutationJournal fileMutationJournal(JournalProperties properties) {
+        return new FileMutationJournal(properties.directory(), properties.snapshotInterval());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "filmorate.journal.enabled", havingValue = "false", matchIfMissing = true)
+    public MutationJournal noopMutationJournal() {
+        return MutationJournal.NOOP;
+    }
+}
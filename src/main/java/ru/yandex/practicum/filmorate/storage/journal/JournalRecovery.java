@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+import ru.yandex.practicum.filmorate.storage.shard.ShardCoordinator;
+
+@Component
+@ConditionalOnProperty(name = "filmorate.journal.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class JournalRecovery {
+    private final FileMutationJournal journal;
+    private final FilmService filmService;
+    private final UserService userService;
+    private final ObjectProvider<ShardCoordinator> shardCoordinator;
+
+    @PostConstruct
+    public void recover() {
+        shardCoordinator.ifAvailable(ShardCoordinator::claimOwnership);
+        journal.recover(new ServiceReplayer(filmService, userService));
+        filmService.rebuildIndexes();
+        journal.start(sink -> {
+            userService.exportUsers(sink::userAdded);
+            filmService.exportFilms(sink::filmAdded);
+        });
+    }
+}
@@ -0,0 +1,6 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+@FunctionalInterface
+public interface JournalSnapshotSource {
+    void export(MutationJournal sink);
+}
@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+public interface MutationJournal {
+    MutationJournal NOOP = new MutationJournal() {
+    };
+
+    default void filmAdded(Film film) {
+    }
+
+    default void filmUpdated(Film film) {
+    }
+
+    default void filmChanged(Film film) {
+    }
+
+    default void likeAdded(int filmId, int userId) {
+    }
+
+    default void likeRemoved(int filmId, int userId) {
+    }
+
+    default void userAdded(User user) {
+    }
+
+    default void userUpdated(User user) {
+    }
+
+    default void userChanged(User user) {
+    }
+
+    default void friendAdded(int userId, int friendId) {
+    }
+
+    default void friendRemoved(int userId, int friendId) {
+    }
+
+    default void awaitDurable() {
+    }
+}
@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import lombok.RequiredArgsConstructor;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+@RequiredArgsConstructor
+public class ServiceReplayer implements MutationJournal {
+    private final FilmService filmService;
+    private final UserService userService;
+
+    @Override
+    public void filmAdded(Film film) {
+        filmService.restoreFilm(film);
+    }
+
+    @Override
+    public void filmUpdated(Film film) {
+        filmService.restoreFilm(film);
+    }
+
+    @Override
+    public void filmChanged(Film film) {
+        filmService.restoreFilmFields(film);
+    }
+
+    @Override
+    public void likeAdded(int filmId, int userId) {
+        filmService.restoreLike(filmId, userId, true);
+    }
+
+    @Override
+    public void likeRemoved(int filmId, int userId) {
+        filmService.restoreLike(filmId, userId, false);
+    }
+
+    @Override
+    public void userAdded(User user) {
+        userService.restoreUser(user);
+    }
+
+    @Override
+    public void userUpdated(User user) {
+        userService.restoreUser(user);
+    }
+
+    @Override
+    public void userChanged(User user) {
+        userService.restoreUserFields(user);
+    }
+
+    @Override
+    public void friendAdded(int userId, int friendId) {
+        userService.restoreFriendship(userId, friendId, true);
+    }
+
+    @Override
+    public void friendRemoved(int userId, int friendId) {
+        userService.restoreFriendship(userId, friendId, false);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+public class FilmPopularityIndex {
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>();
+
+    public void add(int filmId, int likesCount) {
+        entries.add(new Entry(likesCount, filmId));
+    }
+
+    public void remove(int filmId, int likesCount) {
+        entries.remove(new Entry(likesCount, filmId));
+    }
+
+    public void move(int filmId, int oldLikesCount, int newLikesCount) {
+        if (oldLikesCount == newLikesCount) {
+            return;
+        }
+        add(filmId, newLikesCount);
+        remove(filmId, oldLikesCount);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public List<Integer> top(int count) {
+        Set<Integer> result = new LinkedHashSet<>();
+        Iterator<Entry> iterator = entries.iterator();
+        while (result.size() < count && iterator.hasNext()) {
+            result.add(iterator.next().filmId());
+        }
+        return new ArrayList<>(result);
+    }
+
+    private record Entry(int likesCount, int filmId) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            if (likesCount != other.likesCount) {
+                return Integer.compare(other.likesCount, likesCount);
+            }
+            return Integer.compare(filmId, other.filmId);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+public class FilmSearchIndex {
+    private final NavigableSet<Long> byReleaseDate = new ConcurrentSkipListSet<>();
+    private final NavigableSet<Long> byDuration = new ConcurrentSkipListSet<>();
+    private final NavigableSet<NameKey> byName = new ConcurrentSkipListSet<>();
+
+    public void add(Film film) {
+        byReleaseDate.add(key(film.getReleaseDate().toEpochDay(), film.getId()));
+        byDuration.add(key(film.getDuration(), film.getId()));
+        byName.add(new NameKey(normalize(film.getName()), film.getId()));
+    }
+
+    public void remove(Film film) {
+        byReleaseDate.remove(key(film.getReleaseDate().toEpochDay(), film.getId()));
+        byDuration.remove(key(film.getDuration(), film.getId()));
+        byName.remove(new NameKey(normalize(film.getName()), film.getId()));
+    }
+
+    public void clear() {
+        byReleaseDate.clear();
+        byDuration.clear();
+        byName.clear();
+    }
+
+    public int[] candidates(FilmFilter filter) {
+        if (filter.namePrefix() != null) {
+            String prefix = filter.namePrefix();
+            return byName.subSet(new NameKey(prefix, Integer.MIN_VALUE), true,
+                            new NameKey(prefix + Character.MAX_VALUE, Integer.MIN_VALUE), false).stream()
+                    .mapToInt(NameKey::filmId)
+                    .toArray();
+        }
+        if (filter.releasedFrom() != null || filter.releasedTo() != null) {
+            return range(byReleaseDate, epochDay(filter.releasedFrom(), Integer.MIN_VALUE),
+                    epochDay(filter.releasedTo(), Integer.MAX_VALUE));
+        }
+        return range(byDuration, bound(filter.minDuration(), Integer.MIN_VALUE),
+                bound(filter.maxDuration(), Integer.MAX_VALUE));
+    }
+
+    private static int[] range(NavigableSet<Long> index, long from, long to) {
+        return index.subSet(key(from, 0), true, key(to, -1), true).stream()
+                .mapToInt(Long::intValue)
+                .toArray();
+    }
+
+    private static long key(long value, int filmId) {
+        return value << 32 | (filmId & 0xFFFFFFFFL);
+    }
+
+    private static long epochDay(LocalDate date, int missing) {
+        return date == null ? missing : date.toEpochDay();
+    }
+
+    private static long bound(Integer value, int missing) {
+        return value == null ? missing : value;
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private record NameKey(String name, int filmId) implements Comparable<NameKey> {
+        @Override
+        public int compareTo(NameKey other) {
+            int byName = name.compareTo(other.name);
+            return byName != 0 ? byName : Integer.compare(filmId, other.filmId);
+        }
+    }
+}
@@ -1,49 +1,170 @@
 package ru.yandex.practicum.filmorate.storage.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmPatch;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.LikeEvent;
+import ru.yandex.practicum.filmorate.storage.BulkImporter;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.util.IntHashSet;
+import ru.yandex.practicum.filmorate.util.IntIntHashMap;
+import ru.yandex.practicum.filmorate.util.LruCache;
+import ru.yandex.practicum.filmorate.util.RateLimitedLogger;
+import ru.yandex.practicum.filmorate.util.SnapshotTable;
+import ru.yandex.practicum.filmorate.util.TopK;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.util.Collection;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+import java.util.random.RandomGenerator;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FilmService {
-    private final Map<Integer, Film> films = new HashMap<>();
+    private final Map<Integer, Film> films = new ConcurrentHashMap<>();
+    private final FilmPopularityIndex popularityIndex = new FilmPopularityIndex();
+    private final UserLikesIndex userLikes = new UserLikesIndex();
+    private final FilmSearchIndex searchIndex = new FilmSearchIndex();
+    private final FilmTextIndex textIndex = new FilmTextIndex();
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+    private final TrendingIndex trending = new TrendingIndex(locks, Clock.systemUTC());
+    private final SnapshotTable<Film> snapshots = new SnapshotTable<>(this::freeze);
+    private final LruCache<Integer, PopularPage> popularCache = new LruCache<>(POPULAR_CACHE_SIZE, 1);
     private final UserService userService;
+    private final MutationJournal journal;
+    private final RateLimitedLogger filmLog = new RateLimitedLogger(log, HOT_LOG_PER_SECOND);
+    private final RateLimitedLogger likeLog = new RateLimitedLogger(log, HOT_LOG_PER_SECOND);
+    private final RateLimitedLogger popularLog = new RateLimitedLogger(log, HOT_LOG_PER_SECOND);
+    private final RateLimitedLogger validationLog = new RateLimitedLogger(log, HOT_LOG_PER_SECOND);
 
     private static final LocalDate DATE_TO_CHECK = LocalDate.of(1895, 12, 28);
     private static final Integer MAX_DESCR_LENGTH = 200;
-    private int currentId = 0;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int LOCK_STRIPES = 64;
+    private static final int POPULAR_CACHE_SIZE = 128;
+    private static final int UNCHANGED = -1;
+    private static final int SIMILAR_USERS = 50;
+    private static final int MAX_SCANNED_LIKES = 200_000;
+    private static final int MAX_FANS_PER_FILM = 10_000;
+    private static final int HOT_LOG_PER_SECOND = 10;
+    private static final int MAX_LIKE_BATCH = 10_000;
+    private static final String NAME_MESSAGE = "Название должно быть указано";
+    private static final String RELEASE_DATE_MESSAGE = "Дата релиза не может быть раньше " + DATE_TO_CHECK;
+    private static final String DURATION_MESSAGE = "Продолжительность фильма должна быть положительным числом";
+    private static final String DESCRIPTION_MESSAGE =
+            "Максимальная длинна описания не должна превышать " + MAX_DESCR_LENGTH + " символов";
+    private static final String NAME_LENGTH_MESSAGE =
+            "Название не должно быть длиннее " + MAX_NAME_LENGTH + " символов";
+    private final AtomicInteger currentId = new AtomicInteger();
+    private volatile IntPredicate ownedIds = filmId -> true;
 
 
-    public Collection<Film> findAll() {
-        return films.values();
+    public List<Film> findAll() {
+        return snapshots.current().values();
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public List<Film> findPage(int after, int limit) {
+        return snapshots.current().page(after, limit);
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public List<Film> findPage(int after, int limit, FilmFilter filter) {
+        if (filter.isEmpty()) {
+            return findPage(after, limit);
+        }
+        checkFilter(filter);
+        int[] candidates = Arrays.stream(searchIndex.candidates(filter))
+                .filter(filmId -> filmId > after)
+                .sorted()
+                .toArray();
+        SnapshotTable.Snapshot<Film> snapshot = snapshots.current();
+        List<Film> page = new ArrayList<>(Math.min(limit, candidates.length));
+        for (int i = 0; i < candidates.length && page.size() < limit; i++) {
+            Film film = snapshot.get(candidates[i]);
+            if (film != null && filter.matches(film)) {
+                page.add(film);
+            }
+        }
+        return page;
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public Film addFilm(Film film) {
         checkName(film);
         checkDate(film);
         checkDuration(film);
         checkLength(film);
-        film.setId(++currentId);
+        film.setId(nextId());
+        film.setLikesCount(0);
+        film.setLikeScore(new IntHashSet());
 
-
-        films.put(film.getId(), film);
-        log.info("Добавлен фильм: {}, {}", film.getId(), film.getName());
+        locks.runLocked(film.getId(), () -> {
+            journal.filmAdded(film);
+            films.put(film.getId(), film);
+            popularityIndex.add(film.getId(), 0);
+            searchIndex.add(film);
+            textIndex.add(film);
+        });
+        snapshots.markChanged(film.getId());
+        invalidatePopular(film.getId(), 0);
+        journal.awaitDurable();
+        filmLog.info("Добавлен фильм: {}, {}", film.getId(), film.getName());
         return film;
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public void addFilms(List<Film> batch, ObjIntConsumer<String> onRejected) {
+        List<Film> valid = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Film film = batch.get(i);
+            try {
+                checkName(film);
+                checkDate(film);
+                checkDuration(film);
+                checkLength(film);
+                valid.add(film);
+            } catch (RuntimeException e) {
+                onRejected.accept(BulkImporter.rejectionMessage(e), i);
+            }
+        }
+
+        for (Film film : valid) {
+            film.setId(nextId());
+            film.setLikesCount(0);
+            film.setLikeScore(new IntHashSet());
+            locks.runLocked(film.getId(), () -> {
+                journal.filmAdded(film);
+                films.put(film.getId(), film);
+                popularityIndex.add(film.getId(), 0);
+                searchIndex.add(film);
+                textIndex.add(film);
+            });
+            snapshots.markChanged(film.getId());
+        }
+        popularCache.invalidateAll();
+        journal.awaitDurable();
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public Film updateFilm(Film updFilm) {
         checkId(updFilm.getId());
         checkIdMap(updFilm.getId());
@@ -51,25 +172,65 @@ public class FilmService {
         checkDuration(updFilm);
         checkLength(updFilm);
 
-        Film oldFilm = films.get(updFilm.getId());
-        if (updFilm.getName().isEmpty()) {
-            updFilm.setName(oldFilm.getName());
-        }
-        if (updFilm.getReleaseDate() == null) {
-            updFilm.setReleaseDate(oldFilm.getReleaseDate());
-        }
-        if (updFilm.getDescription() == null) {
-            updFilm.setDescription(oldFilm.getDescription());
-        }
-        if (updFilm.getReleaseDate() == null) {
-            updFilm.setReleaseDate(oldFilm.getReleaseDate());
+        Film updated = locks.supplyLocked(updFilm.getId(), () -> {
+            Film oldFilm = films.get(updFilm.getId());
+            if (updFilm.getName().isEmpty()) {
+                updFilm.setName(oldFilm.getName());
+            }
+            if (updFilm.getReleaseDate() == null) {
+                updFilm.setReleaseDate(oldFilm.getReleaseDate());
+            }
+            if (updFilm.getDescription() == null) {
+                updFilm.setDescription(oldFilm.getDescription());
+            }
+
+            replaceFields(oldFilm, updFilm);
+            log.info("Обновлён фильм: {}, {}", oldFilm.getId(), oldFilm.getName());
+            return oldFilm.copy();
+        });
+        snapshots.markChanged(updated.getId());
+        invalidatePopular(updated.getId(), updated.getLikesCount());
+        journal.awaitDurable();
+        return updated;
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public FilmPatch patchFilm(int filmId, FilmPatch patch) {
+        checkIdMap(filmId);
+
+        FilmPatch changes = locks.supplyLocked(filmId, () -> {
+            Film stored = films.get(filmId);
+            Film patched = patch.applyTo(stored.withoutLikes());
+            checkName(patched);
+            checkDate(patched);
+            checkDuration(patched);
+            checkLength(patched);
+            FilmPatch delta = FilmPatch.between(stored, patched);
+            if (!delta.isEmpty()) {
+                replaceFields(stored, patched);
+            }
+            return delta;
+        });
+        if (!changes.isEmpty()) {
+            snapshots.markChanged(filmId);
+            invalidatePopular(filmId, films.get(filmId).getLikesCount());
+            journal.awaitDurable();
+            filmLog.info("Изменён фильм: {}, {}", filmId, changes);
         }
+        return changes;
+    }
 
-        films.put(updFilm.getId(), updFilm);
-        log.info("Обновлён фильм: {}, {}", oldFilm.getId(), oldFilm.getName());
-        return updFilm;
+    private void replaceFields(Film stored, Film fields) {
+        journal.filmChanged(fields);
+        Film old = stored.withoutLikes();
+        searchIndex.remove(old);
+        textIndex.remove(old);
+        stored.assignFields(fields);
+        searchIndex.add(stored);
+        textIndex.add(stored);
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public void addLike(Integer filmId, Integer userId) {
         checkId(filmId);
         checkIdMap(filmId);
@@ -78,14 +239,144 @@ public class FilmService {
             log.error("Пользователя с Id {} не существует", userId);
             throw new ConditionsNotMetException("Пользователя с таким Id не существует: " + userId);
         }
+        trending.advance();
+        int likesCount = locks.supplyLocked(filmId, () -> {
+            Film film = films.get(filmId);
+            if (film.hasLike(userId)) {
+                return UNCHANGED;
+            }
+            journal.likeAdded(filmId, userId);
+            film.addLike(userId);
+            film.setLikesCount(film.getLikesCount() + 1);
+            popularityIndex.move(filmId, film.getLikesCount() - 1, film.getLikesCount());
+            userLikes.add(userId, filmId);
+            trending.recordLike(filmId, userId);
+            return film.getLikesCount();
+        });
+        if (likesCount != UNCHANGED) {
+            snapshots.markChanged(filmId);
+            invalidatePopular(filmId, likesCount);
+        }
+        journal.awaitDurable();
+        likeLog.info("Пользователь {} поставил лайк фильму {}", userId, filmId);
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public void addLikes(List<Like> batch, ObjIntConsumer<String> onRejected) {
+        for (int i = 0; i < batch.size(); i++) {
+            Like like = batch.get(i);
+            if (!films.containsKey(like.filmId())) {
+                onRejected.accept("Фильма с таким Id не существует: " + like.filmId(), i);
+                continue;
+            }
+            if (!userService.userExists(like.userId())) {
+                onRejected.accept("Пользователя с таким Id не существует: " + like.userId(), i);
+                continue;
+            }
+            locks.runLocked(like.filmId(), () -> {
+                Film film = films.get(like.filmId());
+                if (!film.hasLike(like.userId())) {
+                    journal.likeAdded(like.filmId(), like.userId());
+                    film.addLike(like.userId());
+                    film.setLikesCount(film.getLikesCount() + 1);
+                    popularityIndex.move(like.filmId(), film.getLikesCount() - 1, film.getLikesCount());
+                    userLikes.add(like.userId(), like.filmId());
+                }
+            });
+            snapshots.markChanged(like.filmId());
+        }
+        popularCache.invalidateAll();
+        journal.awaitDurable();
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public void applyLikeEvents(List<LikeEvent> batch, ObjIntConsumer<String> onRejected) {
+        long[] byFilm = new long[batch.size()];
+        int valid = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            LikeEvent event = batch.get(i);
+            if (event == null || event.op() == null) {
+                onRejected.accept("Операция должна быть указана", i);
+            } else if (!films.containsKey(event.filmId())) {
+                onRejected.accept("Фильма с таким Id не существует: " + event.filmId(), i);
+            } else if (!userService.userExists(event.userId())) {
+                onRejected.accept("Пользователя с таким Id не существует: " + event.userId(), i);
+            } else {
+                byFilm[valid++] = (long) event.filmId() << 32 | i;
+            }
+        }
+        Arrays.sort(byFilm, 0, valid);
+        trending.advance();
+
+        int start = 0;
+        while (start < valid) {
+            int filmId = (int) (byFilm[start] >>> 32);
+            int end = start;
+            while (end < valid && (int) (byFilm[end] >>> 32) == filmId) {
+                end++;
+            }
+            int from = start;
+            int to = end;
+            int likesCount = locks.supplyLocked(filmId, () -> applyFilmEvents(filmId, batch, byFilm, from, to));
+            if (likesCount != UNCHANGED) {
+                snapshots.markChanged(filmId);
+                invalidatePopular(filmId, likesCount);
+            }
+            start = end;
+        }
+        journal.awaitDurable();
+    }
+
+    private int applyFilmEvents(int filmId, List<LikeEvent> batch, long[] byFilm, int from, int to) {
         Film film = films.get(filmId);
+        int oldLikesCount = film.getLikesCount();
+        int likesCount = oldLikesCount;
+        for (int i = from; i < to; i++) {
+            LikeEvent event = batch.get((int) byFilm[i]);
+            int userId = event.userId();
+            if (event.op() == LikeEvent.Op.LIKE) {
+                if (!film.hasLike(userId)) {
+                    journal.likeAdded(filmId, userId);
+                    film.addLike(userId);
+                    likesCount++;
+                    userLikes.add(userId, filmId);
+                    trending.recordLike(filmId, userId);
+                }
+            } else if (film.hasLike(userId)) {
+                journal.likeRemoved(filmId, userId);
+                film.removeLike(userId);
+                likesCount--;
+                userLikes.remove(userId, filmId);
+                trending.recordUnlike(filmId, userId);
+            }
+        }
+        if (likesCount == oldLikesCount) {
+            return UNCHANGED;
+        }
+        film.setLikesCount(likesCount);
+        popularityIndex.move(filmId, oldLikesCount, likesCount);
+        return likesCount;
+    }
 
-        film.addLike(userId);
-        film.setLikesCount(film.getLikesCount() + 1);
-        films.put(filmId, film);
-        log.info("Пользователь {} поставил лайк фильму {}", userId, filmId);
+    public void checkLikeBatch(List<LikeEvent> batch) {
+        if (batch == null || batch.isEmpty() || batch.size() > MAX_LIKE_BATCH) {
+            log.error("Неверный размер пакета лайков: {}", batch == null ? 0 : batch.size());
+            throw new ValidationException("Размер пакета должен быть от 1 до " + MAX_LIKE_BATCH);
+        }
     }
 
+    public void checkQueuedLikeBatch(List<LikeEvent> batch) {
+        checkLikeBatch(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            LikeEvent event = batch.get(i);
+            if (event == null || event.op() == null) {
+                log.error("В пакете лайков нет операции, позиция {}", i + 1);
+                throw new ValidationException("Операция должна быть указана, позиция " + (i + 1));
+            }
+        }
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public void deleteLike(Integer filmId, Integer userId) {
         checkId(filmId);
         checkIdMap(filmId);
@@ -95,28 +386,305 @@ public class FilmService {
             throw new ConditionsNotMetException("Пользователя с таким Id не существует: " + userId);
         }
 
-        Film film = films.get(filmId);
-        film.removeLike(filmId);
-        film.setLikesCount(film.getLikesCount() - 1);
-        films.put(filmId, film);
+        trending.advance();
+        int likesCount = locks.supplyLocked(filmId, () -> {
+            Film film = films.get(filmId);
+            if (!film.hasLike(userId)) {
+                return UNCHANGED;
+            }
+            journal.likeRemoved(filmId, userId);
+            film.removeLike(userId);
+            film.setLikesCount(film.getLikesCount() - 1);
+            popularityIndex.move(filmId, film.getLikesCount() + 1, film.getLikesCount());
+            userLikes.remove(userId, filmId);
+            trending.recordUnlike(filmId, userId);
+            return film.getLikesCount();
+        });
+        if (likesCount != UNCHANGED) {
+            snapshots.markChanged(filmId);
+            invalidatePopular(filmId, likesCount);
+        }
+        journal.awaitDurable();
+        likeLog.info("Пользователь {} удалил лайк фильму {}", userId, filmId);
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public int[] findLikes(int filmId, int after, int limit) {
+        checkIdMap(filmId);
+        Film film = snapshots.current().get(filmId);
+        return film == null ? new int[0] : film.getLikeScore().sortedAfter(after, limit);
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public List<Film> getPopularFilms(Integer count) {
         if (count <= 0) {
             log.error("Неверное значение count: {}", count);
             throw new ValidationException("Count должен быть больше 0");
         }
-        log.info("Получение {} популярных фильмов", count);
-        return films.values().stream()
-                .sorted(Comparator.comparingInt(Film::getLikesCount).reversed())
-                .limit(count)
-                .collect(Collectors.toList());
+        popularLog.info("Получение {} популярных фильмов", count);
+        return popularCache.get(count, () -> loadPopular(count)).films();
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public List<Film> getPopularFilms(Integer count, FilmFilter filter) {
+        if (filter.isEmpty()) {
+            return getPopularFilms(count);
+        }
+        if (count <= 0) {
+            log.error("Неверное значение count: {}", count);
+            throw new ValidationException("Count должен быть больше 0");
+        }
+        checkFilter(filter);
+        popularLog.info("Получение {} популярных фильмов по фильтру {}", count, filter);
+        SnapshotTable.Snapshot<Film> snapshot = snapshots.current();
+        int[] candidates = searchIndex.candidates(filter);
+        TopK top = new TopK(Math.min(count, candidates.length));
+        for (int filmId : candidates) {
+            Film film = snapshot.get(filmId);
+            if (film != null && filter.matches(film)) {
+                top.offer(filmId, film.getLikesCount());
+            }
+        }
+        return Arrays.stream(top.ids())
+                .mapToObj(snapshot::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public List<Film> searchFilms(String query, int count) {
+        checkSearch(query, count);
+        popularLog.info("Поиск {} фильмов по запросу {}", count, query);
+        SnapshotTable.Snapshot<Film> snapshot = snapshots.current();
+        return Arrays.stream(textIndex.search(query, count))
+                .mapToObj(snapshot::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public List<Film> getTrendingFilms(Integer count, String window) {
+        if (count <= 0) {
+            log.error("Неверное значение count: {}", count);
+            throw new ValidationException("Count должен быть больше 0");
+        }
+        TrendingIndex.Window trendingWindow = TrendingIndex.Window.parse(window);
+        trending.advance();
+        popularLog.info("Получение {} популярных фильмов за {}", count, window);
+        SnapshotTable.Snapshot<Film> snapshot = snapshots.current();
+        return trending.top(trendingWindow, count).stream()
+                .map(snapshot::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public List<Film> getRecommendations(int userId, int count) {
+        if (!userService.userExists(userId)) {
+            log.warn("Пользователь с ID {} не найден", userId);
+            throw new ConditionsNotMetException("Пользователь с ID " + userId + " не найден");
+        }
+        if (count <= 0) {
+            log.error("Неверное значение count: {}", count);
+            throw new ValidationException("Count должен быть больше 0");
+        }
+        log.info("Получение рекомендаций для пользователя {}", userId);
+
+        IntHashSet liked = userLikes.likedFilms(userId);
+        TopK similarUsers = findSimilarUsers(userId, liked);
+        int[] similarIds = similarUsers.ids();
+        int[] overlaps = similarUsers.scores();
+        IntIntHashMap scores = new IntIntHashMap();
+        for (int i = 0; i < similarIds.length; i++) {
+            int weight = overlaps[i];
+            userLikes.forEachLikedFilm(similarIds[i], filmId -> {
+                if (!liked.contains(filmId)) {
+                    scores.addTo(filmId, weight);
+                }
+            });
+        }
+
+        TopK topFilms = new TopK(Math.min(count, scores.size()));
+        scores.forEach(topFilms::offer);
+        SnapshotTable.Snapshot<Film> snapshot = snapshots.current();
+        return Arrays.stream(topFilms.ids())
+                .mapToObj(snapshot::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private TopK findSimilarUsers(int userId, IntHashSet liked) {
+        long[] likedByRarity = new long[liked.size()];
+        int[] known = {0};
+        liked.forEach(filmId -> {
+            int likes = locks.supplyLocked(filmId, () -> {
+                Film film = films.get(filmId);
+                return film == null ? -1 : film.getLikesCount();
+            });
+            if (likes >= 0) {
+                likedByRarity[known[0]++] = (long) likes << 32 | filmId;
+            }
+        });
+        Arrays.sort(likedByRarity, 0, known[0]);
+        IntIntHashMap overlaps = new IntIntHashMap();
+        RandomGenerator random = ThreadLocalRandom.current();
+        int scanned = 0;
+        for (int i = 0; i < known[0] && scanned < MAX_SCANNED_LIKES; i++) {
+            int filmId = (int) likedByRarity[i];
+            int limit = Math.min(MAX_FANS_PER_FILM, MAX_SCANNED_LIKES - scanned);
+            scanned += locks.supplyLocked(filmId, () -> {
+                Film film = films.get(filmId);
+                if (film == null) {
+                    return 0;
+                }
+                IntHashSet fans = film.getLikeScore();
+                fans.sample(limit, random, fanId -> {
+                    if (fanId != userId) {
+                        overlaps.addTo(fanId, 1);
+                    }
+                });
+                return Math.min(limit, fans.size());
+            });
+        }
+        TopK topUsers = new TopK(SIMILAR_USERS);
+        overlaps.forEach(topUsers::offer);
+        return topUsers;
+    }
+
+    public LruCache.Stats popularCacheStats() {
+        return popularCache.stats();
+    }
+
+    public int filmCount() {
+        return films.size();
+    }
+
+    public long likeCount() {
+        long likes = 0;
+        for (Film film : films.values()) {
+            likes += film.getLikesCount();
+        }
+        return likes;
+    }
+
+    public void assignShard(IntPredicate ownedIds) {
+        this.ownedIds = ownedIds;
+    }
+
+    private int nextId() {
+        int id = currentId.incrementAndGet();
+        while (!ownedIds.test(id)) {
+            id = currentId.incrementAndGet();
+        }
+        return id;
+    }
+
+    public void restoreFilm(Film film) {
+        locks.runLocked(film.getId(), () -> films.put(film.getId(), film));
+        snapshots.markChanged(film.getId());
+        currentId.accumulateAndGet(film.getId(), Math::max);
+    }
+
+    public void restoreFilmFields(Film fields) {
+        locks.runLocked(fields.getId(), () -> {
+            Film stored = films.get(fields.getId());
+            if (stored != null) {
+                stored.assignFields(fields);
+            }
+        });
+        snapshots.markChanged(fields.getId());
+    }
+
+    public void restoreLike(int filmId, int userId, boolean liked) {
+        locks.runLocked(filmId, () -> {
+            Film film = films.get(filmId);
+            if (film == null) {
+                return;
+            }
+            if (liked && film.addLike(userId)) {
+                film.setLikesCount(film.getLikesCount() + 1);
+            } else if (!liked && film.removeLike(userId)) {
+                film.setLikesCount(film.getLikesCount() - 1);
+            }
+        });
+        snapshots.markChanged(filmId);
+    }
+
+    public void rebuildIndexes() {
+        popularityIndex.clear();
+        userLikes.clear();
+        searchIndex.clear();
+        textIndex.clear();
+        exportFilms(film -> {
+            popularityIndex.add(film.getId(), film.getLikesCount());
+            searchIndex.add(film);
+            textIndex.add(film);
+            film.getLikeScore().forEach(userId -> userLikes.add(userId, film.getId()));
+        });
+        popularCache.invalidateAll();
+    }
+
+    public void exportFilms(Consumer<Film> consumer) {
+        for (Integer filmId : films.keySet()) {
+            locks.runLocked(filmId, () -> {
+                Film film = films.get(filmId);
+                if (film != null) {
+                    consumer.accept(film);
+                }
+            });
+        }
+    }
+
+    private PopularPage loadPopular(int count) {
+        SnapshotTable.Snapshot<Film> snapshot = snapshots.current();
+        List<Film> popular = popularityIndex.top(count).stream()
+                .map(snapshot::get)
+                .filter(Objects::nonNull)
+                .toList();
+        IntHashSet filmIds = new IntHashSet(popular.size());
+        popular.forEach(film -> filmIds.add(film.getId()));
+        return new PopularPage(popular, filmIds);
+    }
+
+    private Film freeze(int filmId) {
+        return locks.supplyLocked(filmId, () -> {
+            Film stored = films.get(filmId);
+            return stored == null ? null : stored.copy();
+        });
+    }
+
+    private void invalidatePopular(int filmId, int likesCount) {
+        popularCache.invalidateIf((count, page) -> page.affectedBy(count, filmId, likesCount));
     }
 
     public void checkName(Film film) {
         if (film.getName().isEmpty()) {
-            log.error("Название не указано");
-            throw new ValidationException("Название должно быть указано");
+            validationLog.warn("Название не указано: {}", film.getName());
+            throw new ValidationException(NAME_MESSAGE);
+        }
+    }
+
+    public void checkSearch(String query, int count) {
+        if (FilmTextIndex.tokens(query).isEmpty()) {
+            log.error("Пустой поисковый запрос: {}", query);
+            throw new ValidationException("Поисковый запрос должен содержать хотя бы одно слово");
+        }
+        if (count <= 0) {
+            log.error("Неверное значение count: {}", count);
+            throw new ValidationException("Count должен быть больше 0");
+        }
+    }
+
+    public void checkFilter(FilmFilter filter) {
+        if (filter.releasedFrom() != null && filter.releasedTo() != null
+                && filter.releasedFrom().isAfter(filter.releasedTo())) {
+            log.error("Неверный диапазон дат релиза: {} - {}", filter.releasedFrom(), filter.releasedTo());
+            throw new ValidationException("Начало диапазона дат релиза не может быть позже конца");
+        }
+        if (filter.minDuration() != null && filter.maxDuration() != null
+                && filter.minDuration() > filter.maxDuration()) {
+            log.error("Неверный диапазон продолжительности: {} - {}", filter.minDuration(), filter.maxDuration());
+            throw new ValidationException("Минимальная продолжительность не может быть больше максимальной");
         }
     }
 
@@ -136,24 +704,37 @@ public class FilmService {
 
     public void checkDate(Film film) {
         if (film.getReleaseDate().isBefore(DATE_TO_CHECK)) {
-            log.error("Дата релиза раньше фиксированной даты: {} .", film.getReleaseDate());
-            throw new ValidationException("Дата релиза не может быть раньше " + DATE_TO_CHECK);
+            validationLog.warn("Дата релиза раньше фиксированной даты: {}", film.getReleaseDate());
+            throw new ValidationException(RELEASE_DATE_MESSAGE);
         }
     }
 
     public void checkDuration(Film film) {
         if (film.getDuration() < 0) {
-            log.error("Продолжительность фильма отрицательное число: {} .", film.getDuration());
-            throw new ValidationException("Продолжительность фильма должна быть положительным числом");
+            validationLog.warn("Продолжительность фильма отрицательное число: {}", film.getDuration());
+            throw new ValidationException(DURATION_MESSAGE);
         }
     }
 
     public void checkLength(Film film) {
+        if (film.getName() != null && film.getName().length() > MAX_NAME_LENGTH) {
+            validationLog.warn("Длина названия превышает максимальную: {}", film.getName().length());
+            throw new ValidationException(NAME_LENGTH_MESSAGE);
+        }
         if (film.getDescription().length() > MAX_DESCR_LENGTH) {
-            log.error("Максимальная длинна описания превысила максимальное количество символов: {} .",
-                    film.getDescription().length());
-            throw new ValidationException("Максимальная длинна описания не должна превышать 200 символов");
+            validationLog.warn("Длина описания превышает максимальную: {}", film.getDescription().length());
+            throw new ValidationException(DESCRIPTION_MESSAGE);
         }
     }
 
+    private record PopularPage(List<Film> films, IntHashSet filmIds) {
+        boolean affectedBy(int count, int filmId, int likesCount) {
+            if (films.size() < count || filmIds.contains(filmId)) {
+                return true;
+            }
+            Film last = films.get(films.size() - 1);
+            return likesCount > last.getLikesCount()
+                    || likesCount == last.getLikesCount() && filmId < last.getId();
+        }
+    }
 }
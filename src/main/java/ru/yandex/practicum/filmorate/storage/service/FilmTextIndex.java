@@ -0,0 +1,355 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.util.IntIntHashMap;
+import ru.yandex.practicum.filmorate.util.TopK;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class FilmTextIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_WEIGHT = 3;
+    private static final int MAX_PACKED = 0xFFFF;
+    private static final double SCORE_SCALE = 10_000;
+    private static final int BLOCK_SIZE = 128;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final IntIntHashMap lengths = new IntIntHashMap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+    private int documents;
+
+    public void add(Film film) {
+        Map<String, Integer> frequencies = frequencies(film);
+        int length = Math.min(MAX_PACKED, frequencies.values().stream().mapToInt(Integer::intValue).sum());
+        lock.writeLock().lock();
+        try {
+            frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new Postings()).put(film.getId(), frequency, length));
+            lengths.put(film.getId(), length + 1);
+            totalLength += length;
+            documents++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Film film) {
+        Set<String> terms = frequencies(film).keySet();
+        lock.writeLock().lock();
+        try {
+            int length = lengths.remove(film.getId());
+            if (length == 0) {
+                return;
+            }
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null && list.remove(film.getId()) && list.size == 0) {
+                    postings.remove(term);
+                }
+            }
+            totalLength -= length - 1;
+            documents--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            lengths.removeIf((filmId, length) -> true);
+            totalLength = 0;
+            documents = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int[] search(String query, int count) {
+        Set<String> terms = new LinkedHashSet<>(tokens(query));
+        lock.readLock().lock();
+        try {
+            List<TermCursor> cursors = new ArrayList<>(terms.size());
+            double normBase = K1 * (1 - B);
+            double normSlope = K1 * B / Math.max(1.0, (double) totalLength / documents);
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    double weight = (K1 + 1) * Math.log(1 + (documents - list.size + 0.5) / (list.size + 0.5));
+                    cursors.add(new TermCursor(list, weight, normBase, normSlope));
+                }
+            }
+            if (cursors.isEmpty()) {
+                return new int[0];
+            }
+            cursors.sort(Comparator.comparingInt(cursor -> cursor.maxScore));
+            return topDocuments(cursors.toArray(new TermCursor[0]), new TopK(Math.min(count, documents)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int[] topDocuments(TermCursor[] cursors, TopK top) {
+        long[] bounds = new long[cursors.length];
+        long bound = 0;
+        for (int i = 0; i < cursors.length; i++) {
+            bound += cursors[i].maxScore;
+            bounds[i] = bound;
+        }
+        int essential = 0;
+        while (true) {
+            int threshold = top.threshold();
+            while (essential < cursors.length && bounds[essential] <= threshold) {
+                essential++;
+            }
+            if (essential == cursors.length) {
+                break;
+            }
+            long optional = essential == 0 ? 0 : bounds[essential - 1];
+            if (essential == cursors.length - 1) {
+                cursors[essential].skipBlocks(threshold - optional);
+            }
+            int filmId = Integer.MAX_VALUE;
+            for (int i = essential; i < cursors.length; i++) {
+                filmId = Math.min(filmId, cursors[i].filmId());
+            }
+            if (filmId == Integer.MAX_VALUE) {
+                break;
+            }
+            long score = 0;
+            for (int i = essential; i < cursors.length; i++) {
+                if (cursors[i].filmId() == filmId) {
+                    score += cursors[i].score();
+                    cursors[i].next();
+                }
+            }
+            for (int i = essential - 1; i >= 0 && score + bounds[i] > threshold; i--) {
+                cursors[i].advanceTo(filmId);
+                if (cursors[i].filmId() == filmId) {
+                    score += cursors[i].score();
+                }
+            }
+            top.offer(filmId, (int) Math.min(Integer.MAX_VALUE, score));
+        }
+        return top.ids();
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char ch = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                ch = Character.toLowerCase(ch);
+                token.append(ch == 'ё' ? 'е' : ch);
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static Map<String, Integer> frequencies(Film film) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens(film.getName())) {
+            frequencies.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : tokens(film.getDescription())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private static final class Postings {
+        private long[] entries = new long[2];
+        private int size;
+        private int[] blockFrequency = new int[1];
+        private int[] blockLength = new int[1];
+        private final ReentrantLock blocksLock = new ReentrantLock();
+        private volatile boolean blocksStale;
+
+        private void put(int filmId, int frequency, int length) {
+            long entry = (long) filmId << 32 | (long) Math.min(MAX_PACKED, frequency) << 16 | length;
+            if (size == 0 || filmId(entries[size - 1]) < filmId) {
+                if (size == entries.length) {
+                    entries = Arrays.copyOf(entries, size * 2);
+                }
+                entries[size++] = entry;
+                if (!blocksStale) {
+                    addToBlock(size - 1, entry);
+                }
+                return;
+            }
+            blocksStale = true;
+            int index = find(filmId);
+            if (index < size && filmId(entries[index]) == filmId) {
+                entries[index] = entry;
+                return;
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            System.arraycopy(entries, index, entries, index + 1, size - index);
+            entries[index] = entry;
+            size++;
+        }
+
+        private boolean remove(int filmId) {
+            int index = find(filmId);
+            if (index == size || filmId(entries[index]) != filmId) {
+                return false;
+            }
+            System.arraycopy(entries, index + 1, entries, index, size - index - 1);
+            size--;
+            blocksStale = true;
+            return true;
+        }
+
+        private void ensureBlocks() {
+            if (!blocksStale) {
+                return;
+            }
+            blocksLock.lock();
+            try {
+                if (!blocksStale) {
+                    return;
+                }
+                int blocks = Math.max(1, (size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+                blockFrequency = new int[blocks];
+                blockLength = new int[blocks];
+                for (int i = 0; i < size; i++) {
+                    addToBlock(i, entries[i]);
+                }
+                blocksStale = false;
+            } finally {
+                blocksLock.unlock();
+            }
+        }
+
+        private void addToBlock(int index, long entry) {
+            int block = index / BLOCK_SIZE;
+            if (block == blockFrequency.length) {
+                blockFrequency = Arrays.copyOf(blockFrequency, block * 2);
+                blockLength = Arrays.copyOf(blockLength, block * 2);
+            }
+            if (index % BLOCK_SIZE == 0) {
+                blockFrequency[block] = frequency(entry);
+                blockLength[block] = length(entry);
+            } else {
+                blockFrequency[block] = Math.max(blockFrequency[block], frequency(entry));
+                blockLength[block] = Math.min(blockLength[block], length(entry));
+            }
+        }
+
+        private int find(int filmId) {
+            int index = Arrays.binarySearch(entries, 0, size, (long) filmId << 32);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private static int filmId(long entry) {
+            return (int) (entry >>> 32);
+        }
+
+        private static int frequency(long entry) {
+            return (int) (entry >>> 16) & MAX_PACKED;
+        }
+
+        private static int length(long entry) {
+            return (int) entry & MAX_PACKED;
+        }
+    }
+
+    private static final class TermCursor {
+        private final long[] entries;
+        private final int size;
+        private final int[] blockFrequency;
+        private final int[] blockLength;
+        private final double weight;
+        private final double normBase;
+        private final double normSlope;
+        private final int maxScore;
+        private int position;
+
+        private TermCursor(Postings postings, double weight, double normBase, double normSlope) {
+            postings.ensureBlocks();
+            this.entries = postings.entries;
+            this.size = postings.size;
+            this.blockFrequency = postings.blockFrequency;
+            this.blockLength = postings.blockLength;
+            this.weight = weight;
+            this.normBase = normBase;
+            this.normSlope = normSlope;
+            int max = 0;
+            for (int block = 0; block * BLOCK_SIZE < size; block++) {
+                max = Math.max(max, blockScore(block));
+            }
+            this.maxScore = max;
+        }
+
+        private int filmId() {
+            return position < size ? Postings.filmId(entries[position]) : Integer.MAX_VALUE;
+        }
+
+        private int score() {
+            long entry = entries[position];
+            return score(Postings.frequency(entry), Postings.length(entry));
+        }
+
+        private void next() {
+            position++;
+        }
+
+        private void skipBlocks(long threshold) {
+            while (position < size && blockScore(position / BLOCK_SIZE) <= threshold) {
+                position = (position / BLOCK_SIZE + 1) * BLOCK_SIZE;
+            }
+        }
+
+        private void advanceTo(int filmId) {
+            if (position >= size) {
+                return;
+            }
+            int step = 1;
+            int low = position;
+            while (position + step < size && Postings.filmId(entries[position + step]) < filmId) {
+                low = position + step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(entries, low, Math.min(size, position + step + 1), (long) filmId << 32);
+            position = index >= 0 ? index : -index - 1;
+        }
+
+        private int blockScore(int block) {
+            return score(blockFrequency[block], blockLength[block]);
+        }
+
+        private int score(int frequency, int length) {
+            return (int) (weight * frequency / (frequency + normBase + normSlope * length) * SCORE_SCALE);
+        }
+    }
+}
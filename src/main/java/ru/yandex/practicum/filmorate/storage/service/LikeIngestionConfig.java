@@ -0,0 +1,18 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@EnableConfigurationProperties(LikeIngestionProperties.class)
+public class LikeIngestionConfig {
+
+    @Bean(destroyMethod = "close")
+    @Profile("!jdbc")
+    public LikeIngestionQueue likeIngestionQueue(FilmService filmService, LikeIngestionProperties properties) {
+        return new LikeIngestionQueue(filmService::applyLikeEvents, properties.queueCapacity(),
+                properties.batchSize());
+    }
+}
@@ -0,0 +1,10 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "filmorate.likes.ingestion")
+public record LikeIngestionProperties(
+        @DefaultValue("65536") int queueCapacity,
+        @DefaultValue("1024") int batchSize) {
+}
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.yandex.practicum.filmorate.model.LikeEvent;
+import ru.yandex.practicum.filmorate.storage.BulkImporter;
+import ru.yandex.practicum.filmorate.util.RateLimitedLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+public class LikeIngestionQueue implements AutoCloseable {
+    private static final long POLL_MILLIS = 100;
+
+    private final BulkImporter.BatchConsumer<LikeEvent> sink;
+    private final BlockingQueue<LikeEvent> queue;
+    private final int batchSize;
+    private final AtomicLong submitted = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appliedChanged = lock.newCondition();
+    private final RateLimitedLogger rejectedLog = new RateLimitedLogger(log, 10);
+    private final Thread writer;
+
+    private long applied;
+    private volatile boolean running = true;
+
+    public LikeIngestionQueue(BulkImporter.BatchConsumer<LikeEvent> sink, int capacity, int batchSize) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.writer = Thread.ofPlatform().name("like-writer").daemon().start(this::writeLoop);
+    }
+
+    public void submit(List<LikeEvent> events) {
+        try {
+            for (LikeEvent event : events) {
+                queue.put(event);
+                submitted.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Постановка лайков в очередь прервана", e);
+        }
+    }
+
+    public void flush() {
+        long target = submitted.get();
+        lock.lock();
+        try {
+            while (applied < target) {
+                appliedChanged.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание применения лайков прервано", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    private void writeLoop() {
+        List<LikeEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LikeEvent first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sink.accept(batch, (message, index) ->
+                        rejectedLog.warn("Лайк из очереди отклонён: {}, {}", batch.get(index), message));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Не удалось применить пакет лайков из {} событий", batch.size(), e);
+            } finally {
+                markApplied(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void markApplied(int count) {
+        if (count == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            applied += count;
+            appliedChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
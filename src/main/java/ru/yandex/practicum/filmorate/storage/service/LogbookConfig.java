@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.HttpResponse;
+import org.zalando.logbook.Strategy;
+import org.zalando.logbook.core.Conditions;
+import ru.yandex.practicum.filmorate.storage.WireFormats;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Predicate;
+
+@Configuration
+public class LogbookConfig {
+    private static final List<String> HOT_PATHS = List.of(
+            "/films/*/like/*",
+            "/films/popular",
+            "/films/import",
+            "/films/likes/import",
+            "/films/likes/batch",
+            "/users/*/friends",
+            "/users/*/friends/**",
+            "/users/import",
+            "/users/friends/import",
+            "/actuator/**");
+    private static final List<String> STREAMED_PATHS = List.of("/films", "/users");
+
+    @Bean
+    public Strategy logbookStrategy() {
+        Predicate<HttpRequest> withoutBody = HOT_PATHS.stream()
+                .map(Conditions::<HttpRequest>requestTo)
+                .reduce(request -> false, Predicate::or);
+        Predicate<HttpRequest> streamed = STREAMED_PATHS.stream()
+                .map(Conditions::<HttpRequest>requestTo)
+                .reduce(request -> false, Predicate::or)
+                .and(Conditions.requestWithMethod("GET"));
+        Predicate<HttpRequest> binary = request -> WireFormats.isBinary(request.getContentType())
+                || WireFormats.isBinary(request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+        return new HotPathStrategy(withoutBody.or(streamed).or(binary));
+    }
+
+    private record HotPathStrategy(Predicate<HttpRequest> withoutBody) implements Strategy {
+        @Override
+        public HttpRequest process(HttpRequest request) throws IOException {
+            return withoutBody.test(request) ? request.withoutBody() : request.withBody();
+        }
+
+        @Override
+        public HttpResponse process(HttpRequest request, HttpResponse response) throws IOException {
+            return withoutBody.test(request) ? response.withoutBody() : response.withBody();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.util.LruCache;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "responsecache")
+@RequiredArgsConstructor
+public class ResponseCacheEndpoint {
+    private final FilmService filmService;
+    private final UserService userService;
+
+    @ReadOperation
+    public Map<String, LruCache.Stats> stats() {
+        return Map.of(
+                "popularFilms", filmService.popularCacheStats(),
+                "friends", userService.friendsCacheStats(),
+                "suggestions", userService.suggestionsCacheStats());
+    }
+}
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.yandex.practicum.filmorate.util.LruCache;
+
+import java.util.function.Function;
+
+@Configuration
+public class ServiceMetricsConfig {
+    public static final String SERVICE_TIMER = "filmorate.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder storageMetrics(FilmService filmService, UserService userService) {
+        return registry -> {
+            Gauge.builder("filmorate.films", filmService, FilmService::filmCount)
+                    .description("Количество фильмов")
+                    .register(registry);
+            Gauge.builder("filmorate.likes", filmService, FilmService::likeCount)
+                    .description("Количество лайков")
+                    .register(registry);
+            Gauge.builder("filmorate.users", userService, UserService::userCount)
+                    .description("Количество пользователей")
+                    .register(registry);
+            Gauge.builder("filmorate.friend.links", userService, UserService::friendLinkCount)
+                    .description("Количество записей в списках друзей")
+                    .register(registry);
+            bindCache(registry, "popularFilms", filmService, FilmService::popularCacheStats);
+            bindCache(registry, "friends", userService, UserService::friendsCacheStats);
+            bindCache(registry, "suggestions", userService, UserService::suggestionsCacheStats);
+        };
+    }
+
+    private static <T> void bindCache(MeterRegistry registry, String cache, T owner,
+                                      Function<T, LruCache.Stats> stats) {
+        FunctionCounter.builder("filmorate.cache.hits", owner, o -> stats.apply(o).hits())
+                .tag("cache", cache)
+                .register(registry);
+        FunctionCounter.builder("filmorate.cache.misses", owner, o -> stats.apply(o).misses())
+                .tag("cache", cache)
+                .register(registry);
+        FunctionCounter.builder("filmorate.cache.evictions", owner, o -> stats.apply(o).evictions())
+                .tag("cache", cache)
+                .register(registry);
+        Gauge.builder("filmorate.cache.size", owner, o -> stats.apply(o).size())
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class StripedLocks {
+    private final Lock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    public Lock lockFor(int id) {
+        return locks[index(id)];
+    }
+
+    public void runLocked(int id, Runnable action) {
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public <T> T supplyLocked(int id, Supplier<T> action) {
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void runLocked(int firstId, int secondId, Runnable action) {
+        supplyLocked(firstId, secondId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T supplyLocked(int firstId, int secondId, Supplier<T> action) {
+        int first = index(firstId);
+        int second = index(secondId);
+        if (first == second) {
+            return supplyLocked(firstId, action);
+        }
+        Lock outer = locks[Math.min(first, second)];
+        Lock inner = locks[Math.max(first, second)];
+        outer.lock();
+        try {
+            inner.lock();
+            try {
+                return action.get();
+            } finally {
+                inner.unlock();
+            }
+        } finally {
+            outer.unlock();
+        }
+    }
+
+    private int index(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SuggestionsProperties.class)
+public class SuggestionsConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "filmorate.suggestions.precompute.enabled", havingValue = "true")
+    public SuggestionsPrecomputer suggestionsPrecomputer(UserService userService, SuggestionsProperties properties) {
+        return new SuggestionsPrecomputer(userService, properties.refreshInterval());
+    }
+}
@@ -0,0 +1,35 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class SuggestionsPrecomputer implements AutoCloseable {
+    private final UserService userService;
+    private final ScheduledExecutorService scheduler;
+
+    public SuggestionsPrecomputer(UserService userService, Duration refreshInterval) {
+        this.userService = userService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().name("suggestions-precompute").daemon().unstarted(runnable));
+        long period = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshQuietly() {
+        try {
+            userService.refreshSuggestions();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось обновить рекомендации друзей", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
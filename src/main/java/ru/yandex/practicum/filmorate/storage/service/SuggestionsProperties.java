@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "filmorate.suggestions.precompute")
+public record SuggestionsProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1m") Duration refreshInterval) {
+}
@@ -0,0 +1,218 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.util.IntHashSet;
+import ru.yandex.practicum.filmorate.util.IntIntHashMap;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TrendingIndex {
+    public static final int MAX_TRACKED_LIKES = 1024;
+    private static final int BUCKETS = 168;
+    private static final long MILLIS_PER_HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final StripedLocks locks;
+    private final Clock clock;
+    private final Map<Integer, FilmTrend> trends = new ConcurrentHashMap<>();
+    private final FilmPopularityIndex dayIndex = new FilmPopularityIndex();
+    private final FilmPopularityIndex weekIndex = new FilmPopularityIndex();
+    private final List<Set<Integer>> activeFilms;
+    private final ReentrantLock rollover = new ReentrantLock();
+    private volatile long currentHour;
+
+    public TrendingIndex(StripedLocks locks, Clock clock) {
+        this.locks = locks;
+        this.clock = clock;
+        this.activeFilms = new ArrayList<>(BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            activeFilms.add(ConcurrentHashMap.newKeySet());
+        }
+        this.currentHour = clock.millis() / MILLIS_PER_HOUR;
+    }
+
+    public void advance() {
+        long hour = clock.millis() / MILLIS_PER_HOUR;
+        if (hour <= currentHour) {
+            return;
+        }
+        rollover.lock();
+        try {
+            long from = currentHour;
+            if (hour <= from) {
+                return;
+            }
+            IntHashSet expiring = new IntHashSet();
+            if (hour - from >= BUCKETS) {
+                trends.keySet().forEach(expiring::add);
+                activeFilms.forEach(Set::clear);
+            } else {
+                for (long h = from + 1; h <= hour; h++) {
+                    activeFilms.get(slot(h - Window.DAY.hours)).forEach(expiring::add);
+                    Set<Integer> weekExpired = activeFilms.get(slot(h));
+                    weekExpired.forEach(expiring::add);
+                    weekExpired.clear();
+                }
+            }
+            currentHour = hour;
+            expiring.forEach(filmId -> locks.runLocked(filmId, () -> {
+                FilmTrend trend = trends.get(filmId);
+                if (trend != null) {
+                    roll(filmId, trend, hour);
+                    if (trend.week == 0) {
+                        trends.remove(filmId);
+                    }
+                }
+            }));
+        } finally {
+            rollover.unlock();
+        }
+    }
+
+    public void recordLike(int filmId, int userId) {
+        FilmTrend trend = trends.computeIfAbsent(filmId, id -> new FilmTrend(currentHour));
+        long hour = Math.max(currentHour, trend.hour);
+        roll(filmId, trend, hour);
+        if (trend.buckets[slot(hour)]++ == 0) {
+            activeFilms.get(slot(hour)).add(filmId);
+        }
+        if (trend.likedAt.size() < MAX_TRACKED_LIKES) {
+            trend.likedAt.put(userId, (int) hour);
+        }
+        update(filmId, trend, trend.day + 1, trend.week + 1);
+    }
+
+    public void recordUnlike(int filmId, int userId) {
+        FilmTrend trend = trends.get(filmId);
+        if (trend == null) {
+            return;
+        }
+        long hour = Math.max(currentHour, trend.hour);
+        roll(filmId, trend, hour);
+        int likedAt = trend.likedAt.remove(userId);
+        if (likedAt != 0 && likedAt > hour - BUCKETS) {
+            removeLike(filmId, trend, hour, likedAt);
+        } else if (likedAt == 0 && trend.week > trend.likedAt.size()) {
+            removeLike(filmId, trend, hour, hour);
+        }
+        if (trend.week == 0) {
+            trends.remove(filmId);
+        }
+    }
+
+    public List<Integer> top(Window window, int count) {
+        return (window == Window.DAY ? dayIndex : weekIndex).top(count);
+    }
+
+    public int trackedFilms() {
+        return trends.size();
+    }
+
+    private void roll(int filmId, FilmTrend trend, long hour) {
+        if (hour <= trend.hour) {
+            return;
+        }
+        int day = trend.day;
+        int week = trend.week;
+        if (hour - trend.hour >= BUCKETS) {
+            Arrays.fill(trend.buckets, 0);
+            day = 0;
+            week = 0;
+        } else {
+            for (long h = trend.hour + 1; h <= hour; h++) {
+                day -= trend.buckets[slot(h - Window.DAY.hours)];
+                week -= trend.buckets[slot(h)];
+                trend.buckets[slot(h)] = 0;
+            }
+        }
+        if (week != trend.week) {
+            long oldest = hour - BUCKETS;
+            trend.likedAt.removeIf((userId, likedAt) -> likedAt <= oldest);
+        }
+        trend.hour = hour;
+        update(filmId, trend, day, week);
+    }
+
+    private void removeLike(int filmId, FilmTrend trend, long hour, long likedAt) {
+        long at = likedAt;
+        if (trend.buckets[slot(at)] == 0) {
+            at = hour;
+            while (at > hour - BUCKETS && trend.buckets[slot(at)] == 0) {
+                at--;
+            }
+            if (at <= hour - BUCKETS) {
+                return;
+            }
+        }
+        trend.buckets[slot(at)]--;
+        update(filmId, trend, at > hour - Window.DAY.hours ? trend.day - 1 : trend.day, trend.week - 1);
+    }
+
+    private void update(int filmId, FilmTrend trend, int day, int week) {
+        reindex(dayIndex, filmId, trend.day, day);
+        reindex(weekIndex, filmId, trend.week, week);
+        trend.day = day;
+        trend.week = week;
+    }
+
+    private static void reindex(FilmPopularityIndex index, int filmId, int oldCount, int newCount) {
+        if (oldCount == newCount) {
+            return;
+        }
+        if (newCount > 0) {
+            index.add(filmId, newCount);
+        }
+        if (oldCount > 0) {
+            index.remove(filmId, oldCount);
+        }
+    }
+
+    private static int slot(long hour) {
+        return (int) Math.floorMod(hour, (long) BUCKETS);
+    }
+
+    public enum Window {
+        DAY("24h", 24),
+        WEEK("7d", BUCKETS);
+
+        private final String label;
+        private final int hours;
+
+        Window(String label, int hours) {
+            this.label = label;
+            this.hours = hours;
+        }
+
+        public int getHours() {
+            return hours;
+        }
+
+        public static Window parse(String value) {
+            for (Window window : values()) {
+                if (window.label.equals(value)) {
+                    return window;
+                }
+            }
+            throw new ValidationException("Окно должно быть 24h или 7d");
+        }
+    }
+
+    private static final class FilmTrend {
+        private final int[] buckets = new int[BUCKETS];
+        private final IntIntHashMap likedAt = new IntIntHashMap();
+        private long hour;
+        private int day;
+        private int week;
+
+        private FilmTrend(long hour) {
+            this.hour = hour;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.yandex.practicum.filmorate.storage.service;
+
+import ru.yandex.practicum.filmorate.util.IntHashSet;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+public class UserLikesIndex {
+    private static final int LOCK_STRIPES = 64;
+
+    private final Map<Integer, IntHashSet> likedFilms = new ConcurrentHashMap<>();
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+
+    public void add(int userId, int filmId) {
+        locks.runLocked(userId, () -> likedFilms.computeIfAbsent(userId, id -> new IntHashSet()).add(filmId));
+    }
+
+    public void remove(int userId, int filmId) {
+        locks.runLocked(userId, () -> {
+            IntHashSet films = likedFilms.get(userId);
+            if (films != null) {
+                films.remove(filmId);
+            }
+        });
+    }
+
+    public IntHashSet likedFilms(int userId) {
+        return locks.supplyLocked(userId, () -> {
+            IntHashSet films = likedFilms.get(userId);
+            return films == null ? new IntHashSet() : films.copy();
+        });
+    }
+
+    public void forEachLikedFilm(int userId, IntConsumer action) {
+        locks.runLocked(userId, () -> {
+            IntHashSet films = likedFilms.get(userId);
+            if (films != null) {
+                films.forEach(action);
+            }
+        });
+    }
+
+    public void clear() {
+        likedFilms.clear();
+    }
+}
@@ -1,50 +1,137 @@
 package ru.yandex.practicum.filmorate.storage.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Friendship;
 import ru.yandex.practicum.filmorate.model.User;
-
-import java.time.Instant;
+import ru.yandex.practicum.filmorate.model.UserPatch;
+import ru.yandex.practicum.filmorate.storage.BulkImporter;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.util.IntHashSet;
+import ru.yandex.practicum.filmorate.util.IntIntHashMap;
+import ru.yandex.practicum.filmorate.util.LruCache;
+import ru.yandex.practicum.filmorate.util.RateLimitedLogger;
+import ru.yandex.practicum.filmorate.util.SnapshotTable;
+import ru.yandex.practicum.filmorate.util.Today;
+import ru.yandex.practicum.filmorate.util.TopK;
+
+import java.time.Clock;
 import java.time.LocalDate;
-import java.time.ZoneId;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class UserService {
 
     @Getter
-    private final Map<Integer, User> users = new HashMap<>();
-
-    private final Instant instant = Instant.now();
-    private final LocalDate instantAsLocalDate = instant.atZone(ZoneId.systemDefault()).toLocalDate();
-    private int currentId = 0;
+    private final Map<Integer, User> users = new ConcurrentHashMap<>();
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
+    private final SnapshotTable<User> snapshots = new SnapshotTable<>(this::freeze);
+    private final LruCache<Integer, Set<User>> friendsCache = new LruCache<>(FRIENDS_CACHE_SIZE, CACHE_SEGMENTS);
+    private final LruCache<Integer, int[]> suggestionsCache = new LruCache<>(SUGGESTIONS_CACHE_SIZE, CACHE_SEGMENTS);
+    private final MutationJournal journal;
+    private final RateLimitedLogger friendLog = new RateLimitedLogger(log, HOT_LOG_PER_SECOND);
+    private final RateLimitedLogger friendsListLog = new RateLimitedLogger(log, HOT_LOG_PER_SECOND);
+
+    private final RateLimitedLogger profileLog = new RateLimitedLogger(log, HOT_LOG_PER_SECOND);
+    private final RateLimitedLogger validationLog = new RateLimitedLogger(log, HOT_LOG_PER_SECOND);
+    private final Today today = new Today(Clock.systemDefaultZone());
+    private final AtomicInteger currentId = new AtomicInteger();
+    private volatile IntPredicate ownedIds = userId -> true;
+    private volatile IntPredicate remoteUsers = userId -> false;
+    private static final int LOCK_STRIPES = 64;
+    private static final int FRIENDS_CACHE_SIZE = 10_000;
+    private static final int CACHE_SEGMENTS = 16;
+    private static final int SUGGESTIONS_CACHE_SIZE = 10_000;
+    private static final int CACHED_SUGGESTIONS = 50;
+    private static final int MAX_EXPANDED_FRIENDS = 1_000;
+    private static final int MAX_FRIENDS_PER_HOP = 1_000;
+    private static final int HOT_LOG_PER_SECOND = 10;
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final String EMAIL_MESSAGE =
+            "Электронная почта не должна быть пустой и должна содержать символ \"@\".";
+    private static final String LOGIN_MESSAGE = "Логин не может быть пустым или содержать пробелы.";
+    private static final String BIRTHDAY_MESSAGE = "День рождения не может быть в будущем.";
+    private static final String LENGTH_MESSAGE = "Электронная почта, логин и имя не должны быть длиннее "
+            + MAX_FIELD_LENGTH + " символов.";
+
+    public List<User> findAllUsers() {
+        return snapshots.current().values();
+    }
 
-    public Collection<User> findAllUsers() {
-        return users.values();
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public List<User> findPage(int after, int limit) {
+        return snapshots.current().page(after, limit);
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public User addUser(User user) {
         emailCheck(user);
         loginCheck(user);
         birthdayCheck(user);
         nameCheck(user);
-        user.setId(++currentId);
-
-        users.put(user.getId(), user);
+        user.setId(nextId());
+
+        locks.runLocked(user.getId(), () -> {
+            journal.userAdded(user);
+            users.put(user.getId(), user);
+        });
+        snapshots.markChanged(user.getId());
+        journal.awaitDurable();
         log.info("Добавлен пользователь: {}, {}", user.getId(), user.getName());
         return user;
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public void addUsers(List<User> batch, ObjIntConsumer<String> onRejected) {
+        List<User> valid = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            User user = batch.get(i);
+            try {
+                emailCheck(user);
+                loginCheck(user);
+                birthdayCheck(user);
+                nameCheck(user);
+                valid.add(user);
+            } catch (RuntimeException e) {
+                onRejected.accept(BulkImporter.rejectionMessage(e), i);
+            }
+        }
+
+        for (User user : valid) {
+            user.setId(nextId());
+            user.setFriendsList(new IntHashSet());
+            locks.runLocked(user.getId(), () -> {
+                journal.userAdded(user);
+                users.put(user.getId(), user);
+            });
+            snapshots.markChanged(user.getId());
+        }
+        journal.awaitDurable();
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public User updateUser(User updUser) {
         idCheck(updUser.getId());
         mapIdCheck(updUser.getId());
@@ -54,64 +141,174 @@ public class UserService {
         nameCheck(updUser);
 
         if (users.containsKey(updUser.getId())) {
-            User oldUser = users.get(updUser.getId());
-            if (updUser.getEmail() == null) {
-                updUser.setEmail(oldUser.getEmail());
-            }
-            if (updUser.getLogin() == null) {
-                updUser.setLogin(oldUser.getLogin());
-            }
-            if (updUser.getBirthday() == null) {
-                updUser.setBirthday(oldUser.getBirthday());
-            }
-            if (updUser.getName() == null) {
-                updUser.setName(oldUser.getName());
-            }
-
-            users.put(updUser.getId(), updUser);
-            log.info("Обновлён пользователь: {}, {}", oldUser.getId(), oldUser.getName());
-            return updUser;
+            User updated = locks.supplyLocked(updUser.getId(), () -> {
+                User oldUser = users.get(updUser.getId());
+                if (updUser.getEmail() == null) {
+                    updUser.setEmail(oldUser.getEmail());
+                }
+                if (updUser.getLogin() == null) {
+                    updUser.setLogin(oldUser.getLogin());
+                }
+                if (updUser.getBirthday() == null) {
+                    updUser.setBirthday(oldUser.getBirthday());
+                }
+                if (updUser.getName() == null) {
+                    updUser.setName(oldUser.getName());
+                }
+
+                replaceFields(oldUser, updUser);
+                log.info("Обновлён пользователь: {}, {}", oldUser.getId(), oldUser.getName());
+                return oldUser.copy();
+            });
+            snapshots.markChanged(updated.getId());
+            invalidateFriendsOf(updated.getId());
+            journal.awaitDurable();
+            return updated;
         } else {
             throw new ConditionsNotMetException("Пользователь с таким Id не существует");
         }
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public UserPatch patchUser(int userId, UserPatch patch) {
+        mapIdCheck(userId);
+
+        UserPatch changes = locks.supplyLocked(userId, () -> {
+            User stored = users.get(userId);
+            User patched = patch.applyTo(stored.withoutFriends());
+            emailCheck(patched);
+            loginCheck(patched);
+            birthdayCheck(patched);
+            nameCheck(patched);
+            UserPatch delta = UserPatch.between(stored, patched);
+            if (!delta.isEmpty()) {
+                replaceFields(stored, patched);
+            }
+            return delta;
+        });
+        if (!changes.isEmpty()) {
+            snapshots.markChanged(userId);
+            invalidateFriendsOf(userId);
+            journal.awaitDurable();
+            profileLog.info("Изменён пользователь: {}, {}", userId, changes);
+        }
+        return changes;
+    }
+
+    private void invalidateFriendsOf(int userId) {
+        if (friendsCache.stats().size() == 0) {
+            return;
+        }
+        friendIds(userId).forEach(friendsCache::invalidate);
+    }
+
+    private void replaceFields(User stored, User fields) {
+        journal.userChanged(fields);
+        stored.assignFields(fields);
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public void addFriend(int userId, int friendId) {
         idCheck(userId);
         idCheck(friendId);
         mapIdCheck(userId);
         mapIdCheck(friendId);
 
-        User user = users.get(userId);
-        User friend = users.get(friendId);
+        locks.runLocked(userId, friendId, () -> {
+            journal.friendAdded(userId, friendId);
+            users.get(userId).addFriend(friendId);
+            users.get(friendId).addFriend(userId);
+        });
+        snapshots.markChanged(userId);
+        snapshots.markChanged(friendId);
+        friendsCache.invalidate(userId);
+        friendsCache.invalidate(friendId);
+        invalidateNeighbours(userId, friendId);
+        journal.awaitDurable();
+        friendLog.info("Пользователю {} добавлен друг {}", userId, friendId);
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public void linkFriend(int userId, int friendId) {
+        mapIdCheck(userId);
+
+        locks.runLocked(userId, () -> {
+            journal.friendAdded(userId, friendId);
+            users.get(userId).addFriend(friendId);
+        });
+        snapshots.markChanged(userId);
+        friendsCache.invalidate(userId);
+        invalidateNeighbours(userId);
+        journal.awaitDurable();
+        friendLog.info("Пользователю {} добавлен друг {} с другого узла", userId, friendId);
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public void unlinkFriend(int userId, int friendId) {
+        mapIdCheck(userId);
 
-        user.addFriend(friendId);
-        friend.addFriend(userId);
+        locks.runLocked(userId, () -> {
+            journal.friendRemoved(userId, friendId);
+            users.get(userId).removeFriend(friendId);
+        });
+        snapshots.markChanged(userId);
+        friendsCache.invalidate(userId);
+        invalidateNeighbours(userId);
+        journal.awaitDurable();
+        friendLog.info("Пользователь {} удалил друга {} с другого узла", userId, friendId);
+    }
 
-        users.put(userId, user);
-        users.put(friendId, friend);
-        log.info("Пользователю {} добавлен друг {}", userId, friendId);
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public void addFriendships(List<Friendship> batch, ObjIntConsumer<String> onRejected) {
+        for (int i = 0; i < batch.size(); i++) {
+            Friendship friendship = batch.get(i);
+            int userId = friendship.userId();
+            int friendId = friendship.friendId();
+            if (!users.containsKey(userId) || !users.containsKey(friendId)) {
+                onRejected.accept("Пользователя с таким Id не существует: "
+                        + (users.containsKey(userId) ? friendId : userId), i);
+                continue;
+            }
+            locks.runLocked(userId, friendId, () -> {
+                journal.friendAdded(userId, friendId);
+                users.get(userId).addFriend(friendId);
+                users.get(friendId).addFriend(userId);
+            });
+            snapshots.markChanged(userId);
+            snapshots.markChanged(friendId);
+            friendsCache.invalidate(userId);
+            friendsCache.invalidate(friendId);
+        }
+        friendsCache.invalidateAll();
+        suggestionsCache.invalidateAll();
+        journal.awaitDurable();
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public void deleteFriend(int userId, int friendId) {
         idCheck(userId);
         idCheck(friendId);
         mapIdCheck(userId);
         mapIdCheck(friendId);
 
-        User user = users.get(userId);
-        User friend = users.get(friendId);
-
-        user.removeFriend(friendId);
-        friend.removeFriend(userId);
-        users.put(userId, user);
-        users.put(friendId, friend);
-        log.info("Пользователь {} удалил друга {}", userId, friendId);
+        locks.runLocked(userId, friendId, () -> {
+            journal.friendRemoved(userId, friendId);
+            users.get(userId).removeFriend(friendId);
+            users.get(friendId).removeFriend(userId);
+        });
+        snapshots.markChanged(userId);
+        snapshots.markChanged(friendId);
+        friendsCache.invalidate(userId);
+        friendsCache.invalidate(friendId);
+        invalidateNeighbours(userId, friendId);
+        journal.awaitDurable();
+        friendLog.info("Пользователь {} удалил друга {}", userId, friendId);
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public Set<User> findAllFriends(int userId) {
         User user = users.get(userId);
-        log.info("Получение списка друзей пользователя {}", userId);
+        friendsListLog.info("Получение списка друзей пользователя {}", userId);
 
 
         if (user == null) {
@@ -119,12 +316,126 @@ public class UserService {
             throw new ConditionsNotMetException("Пользователь с ID " + userId + " не найден");
         }
 
-        return user.getFriendsList().stream()
-                .map(users::get)
+        return friendsCache.get(userId, () -> friendIds(userId).stream()
+                .mapToObj(snapshots.current()::get)
                 .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toUnmodifiableSet()));
     }
 
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public List<User> findUsers(int[] userIds) {
+        SnapshotTable.Snapshot<User> snapshot = snapshots.current();
+        return Arrays.stream(userIds)
+                .mapToObj(snapshot::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public int[] findFriendIds(int userId, int after, int limit) {
+        mapIdCheck(userId);
+        User user = snapshots.current().get(userId);
+        return user == null ? new int[0] : user.getFriendsList().sortedAfter(after, limit);
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
+    public List<User> getSuggestions(int userId, int count) {
+        if (!users.containsKey(userId)) {
+            log.warn("Пользователь с ID {} не найден", userId);
+            throw new ConditionsNotMetException("Пользователь с ID " + userId + " не найден");
+        }
+        if (count <= 0) {
+            log.error("Неверное значение count: {}", count);
+            throw new ValidationException("Count должен быть больше 0");
+        }
+        log.info("Получение рекомендаций друзей для пользователя {}", userId);
+
+        int[] suggestedIds = count <= CACHED_SUGGESTIONS
+                ? suggestionsCache.get(userId, () -> computeSuggestions(userId, CACHED_SUGGESTIONS))
+                : computeSuggestions(userId, count);
+        SnapshotTable.Snapshot<User> snapshot = snapshots.current();
+        return Arrays.stream(suggestedIds)
+                .limit(count)
+                .mapToObj(snapshot::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public void refreshSuggestions() {
+        for (Integer userId : suggestionsCache.keys()) {
+            if (users.containsKey(userId)) {
+                suggestionsCache.refresh(userId, () -> computeSuggestions(userId, CACHED_SUGGESTIONS));
+            } else {
+                suggestionsCache.invalidate(userId);
+            }
+        }
+    }
+
+    private int[] computeSuggestions(int userId, int count) {
+        IntHashSet friends = friendIds(userId);
+        IntIntHashMap sharedFriends = new IntIntHashMap();
+        RandomGenerator random = ThreadLocalRandom.current();
+        friends.sample(MAX_EXPANDED_FRIENDS, random, friendId -> locks.runLocked(friendId, () -> {
+            User friend = users.get(friendId);
+            if (friend == null) {
+                return;
+            }
+            friend.getFriendsList().sample(MAX_FRIENDS_PER_HOP, random, candidateId -> {
+                if (candidateId != userId && !friends.contains(candidateId)) {
+                    sharedFriends.addTo(candidateId, 1);
+                }
+            });
+        }));
+
+        TopK top = new TopK(Math.min(count, sharedFriends.size()));
+        sharedFriends.forEach(top::offer);
+        return top.ids();
+    }
+
+    private void invalidateNeighbours(int userId, int friendId) {
+        suggestionsCache.invalidate(userId);
+        suggestionsCache.invalidate(friendId);
+        if (suggestionsCache.stats().size() == 0 && friendsCache.stats().size() == 0) {
+            return;
+        }
+        friendIds(userId).forEach(this::invalidateFriendViews);
+        friendIds(friendId).forEach(this::invalidateFriendViews);
+    }
+
+    private void invalidateNeighbours(int userId) {
+        suggestionsCache.invalidate(userId);
+        if (suggestionsCache.stats().size() == 0 && friendsCache.stats().size() == 0) {
+            return;
+        }
+        friendIds(userId).forEach(this::invalidateFriendViews);
+    }
+
+    private void invalidateFriendViews(int userId) {
+        suggestionsCache.invalidate(userId);
+        friendsCache.invalidate(userId);
+    }
+
+    public LruCache.Stats suggestionsCacheStats() {
+        return suggestionsCache.stats();
+    }
+
+    public LruCache.Stats friendsCacheStats() {
+        return friendsCache.stats();
+    }
+
+    public int userCount() {
+        return users.size();
+    }
+
+    public long friendLinkCount() {
+        long links = 0;
+        for (User user : users.values()) {
+            links += user.getFriendsList().size();
+        }
+        return links;
+    }
+
+    @Timed(ServiceMetricsConfig.SERVICE_TIMER)
     public Set<User> findAllMutualFriends(int userId, int otherUserId) {
 
 
@@ -139,11 +450,18 @@ public class UserService {
             log.warn("Пользователь с ID {} не найден", otherUserId);
             return Collections.emptySet();
         }
-        Set<User> userFriends = findAllFriends(userId);
-        Set<User> otherUserFriends = findAllFriends(otherUserId);
-        userFriends.retainAll(otherUserFriends);
-
-        return userFriends;
+        int[] mutualIds = locks.supplyLocked(userId, otherUserId,
+                () -> users.get(userId).getFriendsList().intersection(users.get(otherUserId).getFriendsList()));
+
+        SnapshotTable.Snapshot<User> snapshot = snapshots.current();
+        Set<User> mutualFriends = HashSet.newHashSet(mutualIds.length);
+        for (int mutualId : mutualIds) {
+            User friend = snapshot.get(mutualId);
+            if (friend != null) {
+                mutualFriends.add(friend);
+            }
+        }
+        return mutualFriends;
     }
 
     public void idCheck(Integer userId) {
@@ -160,40 +478,126 @@ public class UserService {
         }
     }
 
-    private void emailCheck(User user) {
-        if (user.getEmail().isBlank() || !user.getEmail().contains("@")) {
-            log.error("Электронная почта пустая или не содержит \"@\": {} .", user.getEmail());
-            throw new ValidationException(
-                    "Электронная почта не должна быть пустой и должна содержать символ \"@\"."
-            );
+    public void emailCheck(User user) {
+        String email = user.getEmail();
+        if (email == null || email.isBlank() || email.indexOf('@') < 0) {
+            validationLog.warn("Электронная почта пустая или не содержит \"@\": {}", email);
+            throw new ValidationException(EMAIL_MESSAGE);
         }
+        lengthCheck(email);
     }
 
-    private void loginCheck(User user) {
-        if (user.getLogin() == null || user.getLogin().contains(" ") || (user.getLogin().isBlank())) {
-            log.error("Логин пустой или содержит пробелы");
-            throw new ValidationException("Логин не может быть пустым или содержать пробелы.");
+    public void loginCheck(User user) {
+        String login = user.getLogin();
+        if (login == null || login.isBlank() || login.indexOf(' ') >= 0) {
+            validationLog.warn("Логин пустой или содержит пробелы: {}", login);
+            throw new ValidationException(LOGIN_MESSAGE);
         }
+        lengthCheck(login);
     }
 
-    private void birthdayCheck(User user) {
-        if (user.getBirthday() != null) {
-            LocalDate birthday = LocalDate.parse(user.getBirthday());
-            if (birthday.isAfter(instantAsLocalDate)) {
-                log.error("День рождения указан в будущем");
-                throw new ValidationException("День рождения не может быть в будущем.");
-            }
+    public void birthdayCheck(User user) {
+        LocalDate birthday = user.getBirthday();
+        if (birthday != null && birthday.isAfter(today.get())) {
+            validationLog.warn("День рождения указан в будущем: {}", birthday);
+            throw new ValidationException(BIRTHDAY_MESSAGE);
         }
     }
 
-    private void nameCheck(User user) {
+    public void nameCheck(User user) {
         if (user.getName() == null) {
             user.setName(user.getLogin());
         }
+        lengthCheck(user.getName());
+    }
+
+    private void lengthCheck(String value) {
+        if (value != null && value.length() > MAX_FIELD_LENGTH) {
+            validationLog.warn("Длина поля превышает максимальную: {}", value.length());
+            throw new ValidationException(LENGTH_MESSAGE);
+        }
+    }
+
+    public void restoreUser(User user) {
+        locks.runLocked(user.getId(), () -> users.put(user.getId(), user));
+        snapshots.markChanged(user.getId());
+        currentId.accumulateAndGet(user.getId(), Math::max);
+    }
+
+    public void restoreUserFields(User fields) {
+        locks.runLocked(fields.getId(), () -> {
+            User stored = users.get(fields.getId());
+            if (stored != null) {
+                stored.assignFields(fields);
+            }
+        });
+        snapshots.markChanged(fields.getId());
+    }
+
+    public void restoreFriendship(int userId, int friendId, boolean friends) {
+        locks.runLocked(userId, friendId, () -> {
+            User user = users.get(userId);
+            User friend = users.get(friendId);
+            if (user != null && (friend != null || !ownedIds.test(friendId))) {
+                if (friends) {
+                    user.addFriend(friendId);
+                } else {
+                    user.removeFriend(friendId);
+                }
+            }
+            if (friend != null && (user != null || !ownedIds.test(userId))) {
+                if (friends) {
+                    friend.addFriend(userId);
+                } else {
+                    friend.removeFriend(userId);
+                }
+            }
+        });
+        snapshots.markChanged(userId);
+        snapshots.markChanged(friendId);
+    }
+
+    public void exportUsers(Consumer<User> consumer) {
+        for (Integer userId : users.keySet()) {
+            locks.runLocked(userId, () -> {
+                User user = users.get(userId);
+                if (user != null) {
+                    consumer.accept(user);
+                }
+            });
+        }
+    }
+
+    private User freeze(int userId) {
+        return locks.supplyLocked(userId, () -> {
+            User stored = users.get(userId);
+            return stored == null ? null : stored.copy();
+        });
+    }
+
+    public IntHashSet friendIds(int userId) {
+        return locks.supplyLocked(userId, () -> users.get(userId).getFriendsList().copy());
     }
 
     public boolean userExists(Integer userId) {
-        return users.containsKey(userId);
+        return userId != null && (users.containsKey(userId) || !ownedIds.test(userId) && remoteUsers.test(userId));
+    }
+
+    public boolean ownsId(int userId) {
+        return ownedIds.test(userId);
+    }
+
+    public void assignShard(IntPredicate ownedIds, IntPredicate remoteUsers) {
+        this.ownedIds = ownedIds;
+        this.remoteUsers = remoteUsers;
+    }
+
+    private int nextId() {
+        int id = currentId.incrementAndGet();
+        while (!ownedIds.test(id)) {
+            id = currentId.incrementAndGet();
+        }
+        return id;
     }
 
 }
@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.client.ClientHttpRequestFactories;
+import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+
+public class ShardClient {
+    private static final Set<String> HOP_HEADERS = Set.of("host", "connection", "content-length",
+            "transfer-encoding", "keep-alive", "upgrade", "expect");
+
+    private final RestClient restClient;
+    private final String secret;
+
+    public ShardClient(RestClient.Builder builder, Duration timeout, String secret) {
+        restClient = builder
+                .requestFactory(ClientHttpRequestFactories.get(JdkClientHttpRequestFactory.class,
+                        ClientHttpRequestFactorySettings.DEFAULTS
+                                .withConnectTimeout(timeout)
+                                .withReadTimeout(timeout)))
+                .build();
+        this.secret = secret;
+    }
+
+    public <T> T get(URI uri, Class<T> type) {
+        return restClient.get()
+                .uri(uri)
+                .header(ShardRouter.HEADER, ShardRouter.PEER)
+                .header(ShardRouter.TOKEN_HEADER, secret)
+                .accept(MediaType.APPLICATION_CBOR)
+                .retrieve()
+                .body(type);
+    }
+
+    public void send(HttpMethod method, URI uri) {
+        restClient.method(method)
+                .uri(uri)
+                .header(ShardRouter.HEADER, ShardRouter.PEER)
+                .header(ShardRouter.TOKEN_HEADER, secret)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    public void forward(URI node, HttpServletRequest request, byte[] body, HttpServletResponse response) {
+        URI target = UriComponentsBuilder.fromUri(node)
+                .path(request.getRequestURI())
+                .query(request.getQueryString())
+                .build(true)
+                .toUri();
+        RestClient.RequestBodySpec spec = restClient.method(HttpMethod.valueOf(request.getMethod()))
+                .uri(target)
+                .headers(headers -> {
+                    for (String name : Collections.list(request.getHeaderNames())) {
+                        if (!HOP_HEADERS.contains(name.toLowerCase())) {
+                            headers.addAll(name, Collections.list(request.getHeaders(name)));
+                        }
+                    }
+                    headers.set(ShardRouter.HEADER, ShardRouter.ROUTED);
+                    headers.set(ShardRouter.TOKEN_HEADER, secret);
+                });
+        if (body.length > 0) {
+            spec.body(body);
+        }
+        spec.exchange((clientRequest, clientResponse) -> {
+            response.setStatus(clientResponse.getStatusCode().value());
+            HttpHeaders headers = clientResponse.getHeaders();
+            headers.forEach((name, values) -> {
+                if (!HOP_HEADERS.contains(name.toLowerCase())) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+            clientResponse.getBody().transferTo(response.getOutputStream());
+            return null;
+        });
+    }
+}
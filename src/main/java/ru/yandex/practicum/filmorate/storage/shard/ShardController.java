@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Profile("!jdbc")
+@ConditionalOnProperty(name = "filmorate.sharding.enabled", havingValue = "true")
+public class ShardController {
+    public static final String USERS_PATH = "/internal/shard/users";
+
+    private final UserService userService;
+
+    @GetMapping(USERS_PATH)
+    public List<User> findUsers(@RequestParam int[] ids) {
+        return userService.findUsers(ids);
+    }
+}
@@ -0,0 +1,260 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.Views;
+import ru.yandex.practicum.filmorate.storage.PageStreamer;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+import ru.yandex.practicum.filmorate.util.IntHashSet;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class ShardCoordinator {
+    private static final int LOOKUP_BATCH = 200;
+    private static final Comparator<Film> POPULAR_ORDER = Comparator.comparingInt(Film::getLikesCount).reversed()
+            .thenComparing(Film::getId);
+
+    private final ShardRouter router;
+    private final ShardClient client;
+    private final UserService userService;
+    private final FilmService filmService;
+
+    public ShardCoordinator(ShardRouter router, ShardClient client, UserService userService,
+                            FilmService filmService) {
+        this.router = router;
+        this.client = client;
+        this.userService = userService;
+        this.filmService = filmService;
+    }
+
+    public void claimOwnership() {
+        if (router.enabled()) {
+            userService.assignShard(router::isLocal, this::remoteUserExists);
+            filmService.assignShard(router::isLocal);
+        }
+    }
+
+    public <T> PageStreamer.PageLoader<T> pages(PageStreamer.PageLoader<T> local, Class<T[]> type,
+                                                ToIntFunction<T> idOf) {
+        if (!scatter()) {
+            return local;
+        }
+        UriComponentsBuilder request = currentRequest();
+        return (after, limit) -> {
+            List<T> page = new ArrayList<>(local.load(after, limit));
+            for (T[] remote : gather(peer -> client.get(at(peer, request)
+                    .replaceQueryParam("after", after)
+                    .replaceQueryParam("limit", limit)
+                    .build(true)
+                    .toUri(), type))) {
+                page.addAll(Arrays.asList(remote));
+            }
+            page.sort(Comparator.comparingInt(idOf));
+            return page.size() > limit ? page.subList(0, limit) : page;
+        };
+    }
+
+    public List<Film> popular(int count, Supplier<List<Film>> local) {
+        List<Film> films = local.get();
+        if (!scatter()) {
+            return films;
+        }
+        UriComponentsBuilder request = currentRequest();
+        List<Film> merged = new ArrayList<>(films);
+        for (Film[] remote : gather(peer -> client.get(at(peer, request).build(true).toUri(), Film[].class))) {
+            merged.addAll(Arrays.asList(remote));
+        }
+        merged.sort(POPULAR_ORDER);
+        return merged.size() > count ? merged.subList(0, count) : merged;
+    }
+
+    public void addFriend(int userId, int friendId) {
+        if (router.isLocal(friendId)) {
+            userService.addFriend(userId, friendId);
+            return;
+        }
+        userService.mapIdCheck(userId);
+        if (!isPeerCall()) {
+            sendToOwner(HttpMethod.PUT, friendId, "/users/" + friendId + "/friends/" + userId);
+        }
+        userService.linkFriend(userId, friendId);
+    }
+
+    public void deleteFriend(int userId, int friendId) {
+        if (router.isLocal(friendId)) {
+            userService.deleteFriend(userId, friendId);
+            return;
+        }
+        userService.mapIdCheck(userId);
+        if (!isPeerCall()) {
+            sendToOwner(HttpMethod.DELETE, friendId, "/users/" + friendId + "/friends/" + userId);
+        }
+        userService.unlinkFriend(userId, friendId);
+    }
+
+    public Set<User> findAllFriends(int userId) {
+        Set<User> local = userService.findAllFriends(userId);
+        if (!router.enabled()) {
+            return local;
+        }
+        Set<User> friends = new HashSet<>(local);
+        int[] remoteIds = userService.friendIds(userId).stream()
+                .filter(friendId -> !router.isLocal(friendId))
+                .toArray();
+        friends.addAll(findUsers(remoteIds));
+        return friends;
+    }
+
+    public Set<User> findAllMutualFriends(int userId, int otherUserId) {
+        if (!router.enabled() || router.isLocal(otherUserId)) {
+            return userService.findAllMutualFriends(userId, otherUserId);
+        }
+        if (!userService.userExists(userId)) {
+            log.warn("Пользователь с ID {} не найден", userId);
+            return Collections.emptySet();
+        }
+        IntHashSet otherFriends = remoteFriendIds(otherUserId);
+        if (otherFriends == null) {
+            log.warn("Пользователь с ID {} не найден", otherUserId);
+            return Collections.emptySet();
+        }
+        return new HashSet<>(findUsers(userService.friendIds(userId).intersection(otherFriends)));
+    }
+
+    public boolean remoteUserExists(int userId) {
+        return client.get(lookupUri(router.ownerOf(userId), new int[]{userId}), User[].class).length > 0;
+    }
+
+    private List<User> findUsers(int[] userIds) {
+        Map<URI, List<Integer>> byOwner = new HashMap<>();
+        List<Integer> local = new ArrayList<>();
+        for (int userId : userIds) {
+            if (router.isLocal(userId)) {
+                local.add(userId);
+            } else {
+                byOwner.computeIfAbsent(router.ownerOf(userId), owner -> new ArrayList<>()).add(userId);
+            }
+        }
+        List<User> users = new ArrayList<>(userService.findUsers(local.stream().mapToInt(Integer::intValue).toArray()));
+        byOwner.forEach((owner, ids) -> {
+            for (int from = 0; from < ids.size(); from += LOOKUP_BATCH) {
+                int[] batch = ids.subList(from, Math.min(ids.size(), from + LOOKUP_BATCH)).stream()
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                users.addAll(Arrays.asList(client.get(lookupUri(owner, batch), User[].class)));
+            }
+        });
+        return users;
+    }
+
+    private IntHashSet remoteFriendIds(int userId) {
+        IntHashSet friendIds = new IntHashSet();
+        int after = 0;
+        while (true) {
+            URI uri = UriComponentsBuilder.fromUri(router.ownerOf(userId))
+                    .path("/users/{userId}/friends/ids")
+                    .queryParam("after", after)
+                    .queryParam("limit", PageStreamer.MAX_PAGE_SIZE)
+                    .build(userId);
+            int[] page;
+            try {
+                page = client.get(uri, int[].class);
+            } catch (HttpClientErrorException.NotFound e) {
+                return null;
+            }
+            for (int friendId : page) {
+                friendIds.add(friendId);
+            }
+            if (page.length < PageStreamer.MAX_PAGE_SIZE) {
+                return friendIds;
+            }
+            after = page[page.length - 1];
+        }
+    }
+
+    private void sendToOwner(HttpMethod method, int userId, String path) {
+        try {
+            client.send(method, UriComponentsBuilder.fromUri(router.ownerOf(userId)).path(path).build().toUri());
+        } catch (HttpClientErrorException.NotFound e) {
+            log.error("Пользователя с этим Id не существует: {}", userId);
+            throw new ConditionsNotMetException("Пользователя с таким Id не существует: " + userId);
+        }
+    }
+
+    private static URI lookupUri(URI owner, int[] userIds) {
+        return UriComponentsBuilder.fromUri(owner)
+                .path(ShardController.USERS_PATH)
+                .queryParam("ids", Arrays.stream(userIds).mapToObj(String::valueOf).collect(Collectors.joining(",")))
+                .build()
+                .toUri();
+    }
+
+    private <T> List<T> gather(Function<URI, T> call) {
+        List<URI> peers = router.peers();
+        List<Future<T>> futures = new ArrayList<>(peers.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (URI peer : peers) {
+                futures.add(executor.submit(() -> call.apply(peer)));
+            }
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        return results;
+    }
+
+    private boolean scatter() {
+        return router.enabled() && !isPeerCall();
+    }
+
+    private static boolean isPeerCall() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && ShardRouter.isPeerCall(attributes.getRequest());
+    }
+
+    private static UriComponentsBuilder at(URI peer, UriComponentsBuilder request) {
+        return request.cloneBuilder()
+                .scheme(peer.getScheme())
+                .host(peer.getHost())
+                .port(peer.getPort());
+    }
+
+    private static UriComponentsBuilder currentRequest() {
+        return ServletUriComponentsBuilder.fromCurrentRequest().replaceQueryParam(Views.PARAM);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import jakarta.servlet.http.HttpServletRequest;
+import ru.yandex.practicum.filmorate.util.ConsistentHashRing;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShardRouter {
+    public static final String HEADER = "X-Filmorate-Shard";
+    public static final String TOKEN_HEADER = "X-Filmorate-Shard-Token";
+    public static final String ROUTED = "routed";
+    public static final String PEER = "peer";
+
+    private final List<URI> nodes;
+    private final int self;
+    private final ConsistentHashRing ring;
+    private final byte[] secret;
+
+    public ShardRouter(ShardingProperties properties) {
+        nodes = List.copyOf(properties.nodes());
+        self = properties.self();
+        secret = properties.secret().getBytes(StandardCharsets.UTF_8);
+        if (!properties.enabled()) {
+            ring = null;
+            return;
+        }
+        if (self < 0 || self >= nodes.size()) {
+            throw new IllegalArgumentException("Номер узла " + self + " вне списка из " + nodes.size() + " узлов");
+        }
+        if (properties.secret().isBlank()) {
+            throw new IllegalArgumentException("Не задан общий ключ узлов filmorate.sharding.secret");
+        }
+        ring = new ConsistentHashRing(nodes.size(), properties.virtualNodes());
+    }
+
+    public static boolean isPeerCall(HttpServletRequest request) {
+        return PEER.equals(request.getHeader(HEADER));
+    }
+
+    public boolean isTrusted(HttpServletRequest request) {
+        String token = request.getHeader(TOKEN_HEADER);
+        return token != null && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), secret);
+    }
+
+    public boolean enabled() {
+        return ring != null;
+    }
+
+    public boolean isLocal(int id) {
+        return ring == null || ring.ownerOf(id) == self;
+    }
+
+    public URI ownerOf(int id) {
+        return nodes.get(ring.ownerOf(id));
+    }
+
+    public List<URI> peers() {
+        List<URI> peers = new ArrayList<>(nodes);
+        peers.remove(self);
+        return peers;
+    }
+}
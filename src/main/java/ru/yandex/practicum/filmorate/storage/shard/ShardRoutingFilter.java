@@ -0,0 +1,174 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.yandex.practicum.filmorate.storage.WireFormats;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@RequiredArgsConstructor
+public class ShardRoutingFilter extends OncePerRequestFilter {
+    private static final Pattern ENTITY_PATH = Pattern.compile("^/(?:films|users)/(\\d{1,9})(?:/.*)?$");
+    private static final Set<String> UPDATE_PATHS = Set.of("/films", "/users");
+
+    private final ShardRouter router;
+    private final ShardClient client;
+    private final WireFormats wireFormats;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getHeader(ShardRouter.HEADER) != null) {
+            if (router.isTrusted(request)) {
+                chain.doFilter(request, response);
+                return;
+            }
+            log.warn("Заголовок {} без ключа узла отброшен: {} {}", ShardRouter.HEADER, request.getMethod(),
+                    request.getRequestURI());
+            request = new ExternalRequest(request);
+        }
+        String path = request.getRequestURI();
+        Matcher matcher = ENTITY_PATH.matcher(path);
+        if (matcher.matches()) {
+            int id = Integer.parseInt(matcher.group(1));
+            if (router.isLocal(id)) {
+                chain.doFilter(request, response);
+            } else {
+                forward(id, request, request.getInputStream().readAllBytes(), response);
+            }
+            return;
+        }
+        if (!"PUT".equals(request.getMethod()) || !UPDATE_PATHS.contains(path)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        Integer id = idOf(request, body);
+        if (id == null || router.isLocal(id)) {
+            chain.doFilter(new BufferedRequest(request, body), response);
+        } else {
+            forward(id, request, body, response);
+        }
+    }
+
+    private void forward(int id, HttpServletRequest request, byte[] body, HttpServletResponse response)
+            throws IOException {
+        URI owner = router.ownerOf(id);
+        log.debug("Запрос {} {} передан на узел {}", request.getMethod(), request.getRequestURI(), owner);
+        try {
+            client.forward(owner, request, body, response);
+        } catch (RestClientException e) {
+            log.error("Узел {} недоступен: {}", owner, e.getMessage());
+            response.sendError(HttpStatus.BAD_GATEWAY.value(), "Узел недоступен: " + owner);
+        }
+    }
+
+    private Integer idOf(HttpServletRequest request, byte[] body) {
+        try {
+            JsonNode id = wireFormats.mapper(wireFormats.negotiate(request.getContentType())).readTree(body).path("id");
+            return id.canConvertToInt() ? id.intValue() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private BufferedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class ExternalRequest extends HttpServletRequestWrapper {
+
+        private ExternalRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isShardHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isShardHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isShardHeader(name))
+                    .toList());
+        }
+
+        private static boolean isShardHeader(String name) {
+            return ShardRouter.HEADER.equalsIgnoreCase(name) || ShardRouter.TOKEN_HEADER.equalsIgnoreCase(name);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.storage.WireFormats;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+@Configuration
+@Profile("!jdbc")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        return new ShardRouter(properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "filmorate.sharding.enabled", havingValue = "true")
+    public ShardClient shardClient(RestClient.Builder builder, ShardingProperties properties) {
+        return new ShardClient(builder, properties.timeout(), properties.secret());
+    }
+
+    @Bean
+    public ShardCoordinator shardCoordinator(ShardRouter router, ObjectProvider<ShardClient> client,
+                                             UserService userService, FilmService filmService) {
+        ShardCoordinator coordinator = new ShardCoordinator(router, client.getIfAvailable(), userService,
+                filmService);
+        coordinator.claimOwnership();
+        return coordinator;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "filmorate.sharding.enabled", havingValue = "true")
+    public FilterRegistrationBean<ShardRoutingFilter> shardRoutingFilter(ShardRouter router, ShardClient client,
+                                                                         WireFormats wireFormats) {
+        return new FilterRegistrationBean<>(new ShardRoutingFilter(router, client, wireFormats));
+    }
+}
@@ -0,0 +1,18 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "filmorate.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<URI> nodes,
+        @DefaultValue("0") int self,
+        @DefaultValue("128") int virtualNodes,
+        @DefaultValue("2s") Duration timeout,
+        @DefaultValue("") String secret) {
+}
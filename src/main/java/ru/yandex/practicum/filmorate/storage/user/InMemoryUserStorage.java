@@ -1,32 +1,68 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.ImportReport;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserPatch;
+import ru.yandex.practicum.filmorate.model.Views;
+import ru.yandex.practicum.filmorate.storage.BulkImporter;
+import ru.yandex.practicum.filmorate.storage.PageStreamer;
+import ru.yandex.practicum.filmorate.storage.WireFormats;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
 import ru.yandex.practicum.filmorate.storage.service.UserService;
+import ru.yandex.practicum.filmorate.storage.shard.ShardCoordinator;
 
-import java.util.Collection;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Set;
 
 @Component
 @RestController
 @RequestMapping(value = "/users")
 @RequiredArgsConstructor
+@Profile("!jdbc")
 public class InMemoryUserStorage implements UserStorage {
     private final UserService userService;
+    private final FilmService filmService;
+    private final ObjectMapper objectMapper;
+    private final WireFormats wireFormats;
+    private final ShardCoordinator shards;
 
     @GetMapping
     @Override
-    public Collection<User> findAllUsers() {
-        return userService.findAllUsers();
+    public ResponseEntity<StreamingResponseBody> findAllUsers(@RequestParam(defaultValue = "0") int after,
+                                                              @RequestParam(defaultValue = Views.FULL) String view,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType format = wireFormats.negotiate(accept);
+        return PageStreamer.array(format, wireFormats.writer(format, User.class, view), after,
+                shards.pages(userService::findPage, User[].class, User::getId), User::getId);
+    }
+
+    @GetMapping(params = "limit")
+    @Override
+    public List<User> findUsers(@RequestParam(defaultValue = "0") int after, @RequestParam int limit) {
+        PageStreamer.checkPage(after, limit);
+        return shards.pages(userService::findPage, User[].class, User::getId).load(after, limit);
     }
 
     @PostMapping
@@ -35,35 +71,74 @@ public class InMemoryUserStorage implements UserStorage {
         return userService.addUser(user);
     }
 
+    @PostMapping(value = "/import", consumes = BulkImporter.NDJSON)
+    @Override
+    public ImportReport importUsers(InputStream body) {
+        return BulkImporter.importLines(body, objectMapper, User.class, userService::addUsers);
+    }
+
     @PutMapping
     @Override
     public User updateUser(@RequestBody User updUser) {
         return userService.updateUser(updUser);
     }
 
+    @PatchMapping("/{userId}")
+    @Override
+    public UserPatch patchUser(@PathVariable("userId") int userId, @RequestBody UserPatch patch) {
+        return userService.patchUser(userId, patch);
+    }
+
     @PutMapping(value = "/{userId}/friends/{friendId}")
     @Override
     public void addFriend(@PathVariable("userId") int userId, @PathVariable("friendId") int friendId) {
-        userService.addFriend(userId, friendId);
+        shards.addFriend(userId, friendId);
+    }
+
+    @PostMapping(value = "/friends/import", consumes = BulkImporter.NDJSON)
+    @Override
+    public ImportReport importFriendships(InputStream body) {
+        return BulkImporter.importLines(body, objectMapper, Friendship.class, userService::addFriendships);
     }
 
     @DeleteMapping(value = "/{userId}/friends/{friendId}")
     @Override
     public void deleteFriend(@PathVariable("userId") int userId, @PathVariable("friendId") int friendId) {
-        userService.deleteFriend(userId, friendId);
+        shards.deleteFriend(userId, friendId);
     }
 
     @GetMapping(value = "/{userId}/friends")
     @Override
     public Set<User> findAllFriends(@PathVariable("userId") int userId) {
-        return userService.findAllFriends(userId);
+        return shards.findAllFriends(userId);
+    }
+
+    @GetMapping(value = "/{userId}/friends/ids")
+    @Override
+    public int[] findFriendIds(@PathVariable("userId") int userId, @RequestParam(defaultValue = "0") int after,
+                               @RequestParam(defaultValue = "" + PageStreamer.MAX_PAGE_SIZE) int limit) {
+        PageStreamer.checkPage(after, limit);
+        return userService.findFriendIds(userId, after, limit);
     }
 
     @GetMapping(value = "/{userId}/friends/common/{otherUserId}")
     @Override
     public Set<User> findAllMutualFriends(@PathVariable("userId") int userId,
                                           @PathVariable("otherUserId") int otherUserId) {
-        return userService.findAllMutualFriends(userId, otherUserId);
+        return shards.findAllMutualFriends(userId, otherUserId);
     }
 
+    @GetMapping(value = "/{userId}/recommendations")
+    @Override
+    public List<Film> getRecommendations(@PathVariable("userId") int userId,
+                                         @RequestParam(defaultValue = "10") int count) {
+        return filmService.getRecommendations(userId, count);
+    }
+
+    @GetMapping(value = "/{userId}/suggestions")
+    @Override
+    public List<User> getSuggestions(@PathVariable("userId") int userId,
+                                     @RequestParam(defaultValue = "10") int count) {
+        return userService.getSuggestions(userId, count);
+    }
 }
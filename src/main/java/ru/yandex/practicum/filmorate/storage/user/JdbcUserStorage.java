@@ -0,0 +1,381 @@
+package ru.yandex.practicum.filmorate.storage.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserPatch;
+import ru.yandex.practicum.filmorate.model.Views;
+import ru.yandex.practicum.filmorate.storage.BulkImporter;
+import ru.yandex.practicum.filmorate.storage.PageStreamer;
+import ru.yandex.practicum.filmorate.storage.WireFormats;
+import ru.yandex.practicum.filmorate.storage.film.JdbcFilmStorage;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+import ru.yandex.practicum.filmorate.util.IntHashSet;
+
+import java.io.InputStream;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+@Slf4j
+@Component
+@RestController
+@RequestMapping(value = "/users")
+@RequiredArgsConstructor
+@Profile("jdbc")
+public class JdbcUserStorage implements UserStorage {
+    private static final String SELECT_USERS = "SELECT u.id, u.email, u.login, u.name, u.birthday, "
+            + "ARRAY(SELECT fr.friend_id FROM friendships fr WHERE fr.user_id = u.id ORDER BY fr.friend_id) AS friends "
+            + "FROM users u ";
+    private static final String MERGE_FRIENDSHIP =
+            "MERGE INTO friendships (user_id, friend_id) KEY (user_id, friend_id) VALUES (?, ?)";
+    private static final String DELETE_FRIENDSHIP = "DELETE FROM friendships WHERE user_id = ? AND friend_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final WireFormats wireFormats;
+    private final JdbcFilmStorage filmStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    @GetMapping
+    @Override
+    public ResponseEntity<StreamingResponseBody> findAllUsers(@RequestParam(defaultValue = "0") int after,
+                                                              @RequestParam(defaultValue = Views.FULL) String view,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType format = wireFormats.negotiate(accept);
+        return PageStreamer.array(format, wireFormats.writer(format, User.class, view), after, this::findPage,
+                User::getId);
+    }
+
+    @GetMapping(params = "limit")
+    @Override
+    public List<User> findUsers(@RequestParam(defaultValue = "0") int after, @RequestParam int limit) {
+        PageStreamer.checkPage(after, limit);
+        return findPage(after, limit);
+    }
+
+    @PostMapping
+    @Override
+    public User addUser(@RequestBody User user) {
+        userService.emailCheck(user);
+        userService.loginCheck(user);
+        userService.birthdayCheck(user);
+        userService.nameCheck(user);
+
+        Number id = new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName("users")
+                .usingGeneratedKeyColumns("id")
+                .executeAndReturnKey(toParameters(user));
+        user.setId(id.intValue());
+        user.setFriendsList(new IntHashSet());
+        log.info("Добавлен пользователь: {}, {}", user.getId(), user.getName());
+        return user;
+    }
+
+    @PostMapping(value = "/import", consumes = BulkImporter.NDJSON)
+    @Override
+    public ImportReport importUsers(InputStream body) {
+        return BulkImporter.importLines(body, objectMapper, User.class,
+                (batch, onRejected) -> transactionTemplate.executeWithoutResult(
+                        status -> addUsers(batch, onRejected)));
+    }
+
+    @PutMapping
+    @Override
+    public User updateUser(@RequestBody User updUser) {
+        userService.idCheck(updUser.getId());
+        checkExists(updUser.getId());
+        userService.emailCheck(updUser);
+        userService.loginCheck(updUser);
+        userService.birthdayCheck(updUser);
+        userService.nameCheck(updUser);
+
+        jdbcTemplate.update("UPDATE users SET email = ?, login = ?, name = ?, birthday = COALESCE(?, birthday) "
+                        + "WHERE id = ?",
+                updUser.getEmail(), updUser.getLogin(), updUser.getName(), toDate(updUser.getBirthday()),
+                updUser.getId());
+        log.info("Обновлён пользователь: {}, {}", updUser.getId(), updUser.getName());
+        return findById(updUser.getId());
+    }
+
+    @PatchMapping("/{userId}")
+    @Transactional
+    @Override
+    public UserPatch patchUser(@PathVariable("userId") int userId, @RequestBody UserPatch patch) {
+        checkExists(userId);
+        User stored = jdbcTemplate.queryForObject("SELECT id, email, login, name, birthday FROM users "
+                + "WHERE id = ? FOR UPDATE", this::mapFields, userId);
+        User patched = patch.applyTo(stored.withoutFriends());
+        userService.emailCheck(patched);
+        userService.loginCheck(patched);
+        userService.birthdayCheck(patched);
+        userService.nameCheck(patched);
+
+        UserPatch changes = UserPatch.between(stored, patched);
+        if (!changes.isEmpty()) {
+            jdbcTemplate.update("UPDATE users SET email = ?, login = ?, name = ?, birthday = ? WHERE id = ?",
+                    patched.getEmail(), patched.getLogin(), patched.getName(), toDate(patched.getBirthday()), userId);
+            log.info("Изменён пользователь: {}, {}", userId, changes);
+        }
+        return changes;
+    }
+
+    @PutMapping(value = "/{userId}/friends/{friendId}")
+    @Override
+    @Transactional
+    public void addFriend(@PathVariable("userId") int userId, @PathVariable("friendId") int friendId) {
+        checkExists(userId);
+        checkExists(friendId);
+        jdbcTemplate.batchUpdate(MERGE_FRIENDSHIP, List.of(
+                new Object[]{userId, friendId},
+                new Object[]{friendId, userId}));
+        log.info("Пользователю {} добавлен друг {}", userId, friendId);
+    }
+
+    @PostMapping(value = "/friends/import", consumes = BulkImporter.NDJSON)
+    @Override
+    public ImportReport importFriendships(InputStream body) {
+        return BulkImporter.importLines(body, objectMapper, Friendship.class,
+                (batch, onRejected) -> transactionTemplate.executeWithoutResult(
+                        status -> addFriendships(batch, onRejected)));
+    }
+
+    @DeleteMapping(value = "/{userId}/friends/{friendId}")
+    @Override
+    @Transactional
+    public void deleteFriend(@PathVariable("userId") int userId, @PathVariable("friendId") int friendId) {
+        checkExists(userId);
+        checkExists(friendId);
+        jdbcTemplate.batchUpdate(DELETE_FRIENDSHIP, List.of(
+                new Object[]{userId, friendId},
+                new Object[]{friendId, userId}));
+        log.info("Пользователь {} удалил друга {}", userId, friendId);
+    }
+
+    @GetMapping(value = "/{userId}/friends")
+    @Override
+    public Set<User> findAllFriends(@PathVariable("userId") int userId) {
+        log.info("Получение списка друзей пользователя {}", userId);
+        if (!exists(userId)) {
+            log.warn("Пользователь с ID {} не найден", userId);
+            throw new ConditionsNotMetException("Пользователь с ID " + userId + " не найден");
+        }
+        return new LinkedHashSet<>(jdbcTemplate.query(SELECT_USERS
+                + "JOIN friendships f ON f.friend_id = u.id WHERE f.user_id = ? ORDER BY u.id", this::mapUser, userId));
+    }
+
+    @GetMapping(value = "/{userId}/friends/ids")
+    @Override
+    public int[] findFriendIds(@PathVariable("userId") int userId, @RequestParam(defaultValue = "0") int after,
+                               @RequestParam(defaultValue = "" + PageStreamer.MAX_PAGE_SIZE) int limit) {
+        PageStreamer.checkPage(after, limit);
+        checkExists(userId);
+        return jdbcTemplate.queryForList("SELECT friend_id FROM friendships WHERE user_id = ? AND friend_id > ? "
+                        + "ORDER BY friend_id LIMIT ?", Integer.class, userId, after, limit).stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @GetMapping(value = "/{userId}/friends/common/{otherUserId}")
+    @Override
+    public Set<User> findAllMutualFriends(@PathVariable("userId") int userId,
+                                          @PathVariable("otherUserId") int otherUserId) {
+        return new LinkedHashSet<>(jdbcTemplate.query(SELECT_USERS
+                        + "WHERE u.id IN (SELECT a.friend_id FROM friendships a "
+                        + "JOIN friendships b ON b.friend_id = a.friend_id AND b.user_id = ? WHERE a.user_id = ?) "
+                        + "ORDER BY u.id",
+                this::mapUser, userId, otherUserId));
+    }
+
+    @GetMapping(value = "/{userId}/recommendations")
+    @Override
+    public List<Film> getRecommendations(@PathVariable("userId") int userId,
+                                         @RequestParam(defaultValue = "10") int count) {
+        return filmStorage.findRecommendations(userId, count);
+    }
+
+    @GetMapping(value = "/{userId}/suggestions")
+    @Override
+    public List<User> getSuggestions(@PathVariable("userId") int userId,
+                                     @RequestParam(defaultValue = "10") int count) {
+        if (!exists(userId)) {
+            log.warn("Пользователь с ID {} не найден", userId);
+            throw new ConditionsNotMetException("Пользователь с ID " + userId + " не найден");
+        }
+        if (count <= 0) {
+            log.error("Неверное значение count: {}", count);
+            throw new ValidationException("Count должен быть больше 0");
+        }
+        log.info("Получение рекомендаций друзей для пользователя {}", userId);
+        return jdbcTemplate.query(SELECT_USERS
+                        + "JOIN (SELECT fof.friend_id AS candidate_id, COUNT(*) AS shared FROM friendships f "
+                        + "JOIN friendships fof ON fof.user_id = f.friend_id "
+                        + "WHERE f.user_id = ? AND fof.friend_id <> f.user_id "
+                        + "AND NOT EXISTS (SELECT 1 FROM friendships d WHERE d.user_id = f.user_id "
+                        + "AND d.friend_id = fof.friend_id) "
+                        + "GROUP BY fof.friend_id ORDER BY shared DESC, fof.friend_id LIMIT ?) s "
+                        + "ON s.candidate_id = u.id ORDER BY s.shared DESC, u.id",
+                this::mapUser, userId, count);
+    }
+
+    private void addUsers(List<User> batch, ObjIntConsumer<String> onRejected) {
+        List<User> valid = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            User user = batch.get(i);
+            try {
+                userService.emailCheck(user);
+                userService.loginCheck(user);
+                userService.birthdayCheck(user);
+                userService.nameCheck(user);
+                valid.add(user);
+            } catch (RuntimeException e) {
+                onRejected.accept(BulkImporter.rejectionMessage(e), i);
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, login, name, birthday) VALUES (?, ?, ?, ?)",
+                valid, valid.size(), (ps, user) -> {
+                    ps.setString(1, user.getEmail());
+                    ps.setString(2, user.getLogin());
+                    ps.setString(3, user.getName());
+                    ps.setDate(4, toDate(user.getBirthday()));
+                });
+    }
+
+    private void addFriendships(List<Friendship> batch, ObjIntConsumer<String> onRejected) {
+        IntHashSet existing = existingIds(batch.stream()
+                .flatMapToInt(friendship -> IntStream.of(friendship.userId(), friendship.friendId())));
+
+        List<Friendship> valid = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Friendship friendship = batch.get(i);
+            if (!existing.contains(friendship.userId())) {
+                onRejected.accept("Пользователя с таким Id не существует: " + friendship.userId(), i);
+            } else if (!existing.contains(friendship.friendId())) {
+                onRejected.accept("Пользователя с таким Id не существует: " + friendship.friendId(), i);
+            } else {
+                valid.add(friendship);
+            }
+        }
+        addFriendships(valid);
+    }
+
+    @Transactional
+    public void addFriendships(Collection<Friendship> friendships) {
+        List<Object[]> rows = new ArrayList<>(friendships.size() * 2);
+        for (Friendship friendship : friendships) {
+            rows.add(new Object[]{friendship.userId(), friendship.friendId()});
+            rows.add(new Object[]{friendship.friendId(), friendship.userId()});
+        }
+        jdbcTemplate.batchUpdate(MERGE_FRIENDSHIP, rows);
+    }
+
+    public boolean exists(int userId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE id = ?)", Boolean.class, userId));
+    }
+
+    private List<User> findPage(int after, int limit) {
+        return jdbcTemplate.query(SELECT_USERS + "WHERE u.id > ? ORDER BY u.id LIMIT ?", this::mapUser, after, limit);
+    }
+
+    private IntHashSet existingIds(IntStream ids) {
+        Integer[] distinct = ids.distinct().boxed().toArray(Integer[]::new);
+        IntHashSet existing = new IntHashSet(distinct.length);
+        jdbcTemplate.query("SELECT id FROM users WHERE id = ANY(?)",
+                rs -> {
+                    existing.add(rs.getInt(1));
+                }, (Object) distinct);
+        return existing;
+    }
+
+    private User findById(int userId) {
+        return jdbcTemplate.queryForObject(SELECT_USERS + "WHERE u.id = ?", this::mapUser, userId);
+    }
+
+    private void checkExists(int userId) {
+        if (!exists(userId)) {
+            log.error("Пользователя с этим Id не существует: {}", userId);
+            throw new ConditionsNotMetException("Пользователя с таким Id не существует: " + userId);
+        }
+    }
+
+    private User mapUser(ResultSet rs, int rowNum) throws SQLException {
+        User user = mapFields(rs, rowNum);
+        user.setFriendsList(toIds(rs.getArray("friends")));
+        return user;
+    }
+
+    private User mapFields(ResultSet rs, int rowNum) throws SQLException {
+        User user = new User();
+        user.setId(rs.getInt("id"));
+        user.setEmail(rs.getString("email"));
+        user.setLogin(rs.getString("login"));
+        user.setName(rs.getString("name"));
+        user.setBirthday(rs.getObject("birthday", LocalDate.class));
+        return user;
+    }
+
+    private static IntHashSet toIds(Array array) throws SQLException {
+        if (array == null) {
+            return new IntHashSet();
+        }
+        Object[] values = (Object[]) array.getArray();
+        IntHashSet ids = new IntHashSet(values.length);
+        for (Object value : values) {
+            ids.add(((Number) value).intValue());
+        }
+        return ids;
+    }
+
+    private static Map<String, Object> toParameters(User user) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("email", user.getEmail());
+        parameters.put("login", user.getLogin());
+        parameters.put("name", user.getName());
+        parameters.put("birthday", toDate(user.getBirthday()));
+        return parameters;
+    }
+
+    private static Date toDate(LocalDate birthday) {
+        return birthday == null ? null : Date.valueOf(birthday);
+    }
+}
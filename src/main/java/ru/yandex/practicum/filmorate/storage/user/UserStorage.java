@@ -1,23 +1,43 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ImportReport;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserPatch;
 
-import java.util.Collection;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Set;
 
 public interface UserStorage {
-    Collection<User> findAllUsers();
+    ResponseEntity<StreamingResponseBody> findAllUsers(int after, String view, String accept);
+
+    List<User> findUsers(int after, int limit);
 
     User addUser(@RequestBody User user);
 
     User updateUser(@RequestBody User updUser);
 
+    UserPatch patchUser(int userId, UserPatch patch);
+
+    ImportReport importUsers(InputStream body);
+
     void addFriend(int userId, int friendId);
 
+    ImportReport importFriendships(InputStream body);
+
     void deleteFriend(int userId, int friendId);
 
     Set<User> findAllFriends(int userId);
 
+    int[] findFriendIds(int userId, int after, int limit);
+
     Set<User> findAllMutualFriends(int userId, int otherUserId);
+
+    List<Film> getRecommendations(int userId, int count);
+
+    List<User> getSuggestions(int userId, int count);
 }
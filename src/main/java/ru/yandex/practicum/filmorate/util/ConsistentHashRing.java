@@ -0,0 +1,47 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.Arrays;
+
+public class ConsistentHashRing {
+    private static final int NODE_SEED = 0x5BD1E995;
+
+    private final int[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(int nodes, int virtualNodes) {
+        if (nodes <= 0 || virtualNodes <= 0) {
+            throw new IllegalArgumentException("Кольцо должно содержать хотя бы один узел");
+        }
+        long[] entries = new long[nodes * virtualNodes];
+        for (int node = 0; node < nodes; node++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                int point = mix(mix(node ^ NODE_SEED) + replica);
+                entries[node * virtualNodes + replica] = (long) point << 32 | node;
+            }
+        }
+        Arrays.sort(entries);
+        points = new int[entries.length];
+        owners = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = (int) (entries[i] >> 32);
+            owners[i] = (int) entries[i];
+        }
+    }
+
+    public int ownerOf(int key) {
+        int index = Arrays.binarySearch(points, mix(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    private static int mix(int value) {
+        value ^= value >>> 16;
+        value *= 0x85EBCA6B;
+        value ^= value >>> 13;
+        value *= 0xC2B2AE35;
+        value ^= value >>> 16;
+        return value;
+    }
+}
@@ -0,0 +1,316 @@
+package ru.yandex.practicum.filmorate.util;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+public class IntHashSet {
+    private static final int DEFAULT_CAPACITY = 4;
+    private static final int EMPTY = 0;
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+
+    private int[][] pages;
+    private boolean[] sharedPages;
+    private int capacity;
+    private int size;
+    private boolean containsZero;
+
+    public IntHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntHashSet(int expectedSize) {
+        capacity = tableSizeFor(expectedSize);
+        pages = allocate(capacity);
+    }
+
+    private IntHashSet(int[][] pages, int capacity, int size, boolean containsZero) {
+        this.pages = pages;
+        this.capacity = capacity;
+        this.size = size;
+        this.containsZero = containsZero;
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static IntHashSet of(int... values) {
+        IntHashSet set = new IntHashSet(values.length);
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = capacity - 1;
+        int slot = hash(value) & mask;
+        while (key(slot) != EMPTY) {
+            if (key(slot) == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        setKey(slot, value);
+        size++;
+        if (size > capacity * 3 / 4) {
+            rehash(capacity << 1);
+        }
+        return true;
+    }
+
+    public boolean remove(int value) {
+        if (value == EMPTY) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int mask = capacity - 1;
+        int slot = hash(value) & mask;
+        while (key(slot) != value) {
+            if (key(slot) == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        setKey(slot, EMPTY);
+        size--;
+        shiftBack(slot, mask);
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value == EMPTY) {
+            return containsZero;
+        }
+        int mask = capacity - 1;
+        int slot = hash(value) & mask;
+        int key;
+        while ((key = key(slot)) != EMPTY) {
+            if (key == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        if (containsZero) {
+            action.accept(EMPTY);
+        }
+        for (int[] page : pages) {
+            for (int key : page) {
+                if (key != EMPTY) {
+                    action.accept(key);
+                }
+            }
+        }
+    }
+
+    public void sample(int limit, RandomGenerator random, IntConsumer action) {
+        if (size <= limit) {
+            forEach(action);
+            return;
+        }
+        int emitted = 0;
+        if (containsZero) {
+            action.accept(EMPTY);
+            emitted++;
+        }
+        int start = random.nextInt(capacity);
+        for (int i = 0; i < capacity && emitted < limit; i++) {
+            int key = key((start + i) & (capacity - 1));
+            if (key != EMPTY) {
+                action.accept(key);
+                emitted++;
+            }
+        }
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(toArray());
+    }
+
+    @JsonValue
+    public int[] toArray() {
+        int[] result = new int[size];
+        int[] count = {0};
+        forEach(value -> result[count[0]++] = value);
+        Arrays.sort(result);
+        return result;
+    }
+
+    public int[] intersection(IntHashSet other) {
+        IntHashSet smaller = size <= other.size ? this : other;
+        IntHashSet larger = smaller == this ? other : this;
+        int[] result = new int[smaller.size];
+        int count = 0;
+        if (smaller.containsZero && larger.containsZero) {
+            result[count++] = EMPTY;
+        }
+        for (int[] page : smaller.pages) {
+            for (int key : page) {
+                if (key != EMPTY && larger.contains(key)) {
+                    result[count++] = key;
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    public int[] sortedAfter(int after, int limit) {
+        TopK smallest = new TopK(Math.min(limit, size));
+        forEach(value -> {
+            if (value > after) {
+                smallest.offer(value, -value);
+            }
+        });
+        return smallest.ids();
+    }
+
+    public IntHashSet copy() {
+        int[][] copied = new int[pages.length][];
+        for (int i = 0; i < pages.length; i++) {
+            copied[i] = pages[i].clone();
+        }
+        return new IntHashSet(copied, capacity, size, containsZero);
+    }
+
+    public IntHashSet share() {
+        IntHashSet shared = new IntHashSet(pages.clone(), capacity, size, containsZero);
+        sharedPages = allShared(pages.length);
+        shared.sharedPages = allShared(pages.length);
+        return shared;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntHashSet other) || other.size != size || other.containsZero != containsZero) {
+            return false;
+        }
+        for (int[] page : pages) {
+            for (int key : page) {
+                if (key != EMPTY && !other.contains(key)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int[] page : pages) {
+            for (int key : page) {
+                hash += key;
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private int key(int slot) {
+        return pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK];
+    }
+
+    private void setKey(int slot, int value) {
+        int page = slot >>> PAGE_SHIFT;
+        if (sharedPages != null && sharedPages[page]) {
+            pages[page] = pages[page].clone();
+            sharedPages[page] = false;
+        }
+        pages[page][slot & PAGE_MASK] = value;
+    }
+
+    private void shiftBack(int freeSlot, int mask) {
+        int slot = (freeSlot + 1) & mask;
+        int key;
+        while ((key = key(slot)) != EMPTY) {
+            int home = hash(key) & mask;
+            if (((slot - home) & mask) >= ((slot - freeSlot) & mask)) {
+                setKey(freeSlot, key);
+                setKey(slot, EMPTY);
+                freeSlot = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        int[][] oldPages = pages;
+        pages = allocate(newCapacity);
+        sharedPages = null;
+        capacity = newCapacity;
+        int mask = newCapacity - 1;
+        for (int[] page : oldPages) {
+            for (int key : page) {
+                if (key != EMPTY) {
+                    int slot = hash(key) & mask;
+                    while (key(slot) != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    pages[slot >>> PAGE_SHIFT][slot & PAGE_MASK] = key;
+                }
+            }
+        }
+    }
+
+    private static int[][] allocate(int capacity) {
+        int pageSize = Math.min(capacity, PAGE_MASK + 1);
+        int[][] pages = new int[capacity / pageSize][];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = new int[pageSize];
+        }
+        return pages;
+    }
+
+    private static boolean[] allShared(int pages) {
+        boolean[] shared = new boolean[pages];
+        Arrays.fill(shared, true);
+        return shared;
+    }
+
+    private static int hash(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
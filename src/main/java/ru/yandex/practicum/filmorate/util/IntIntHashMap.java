@@ -0,0 +1,190 @@
+package ru.yandex.practicum.filmorate.util;
+
+public class IntIntHashMap {
+    private static final int DEFAULT_CAPACITY = 4;
+    private static final int EMPTY = 0;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private boolean containsZero;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    public int addTo(int key, int delta) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                containsZero = true;
+                size++;
+            }
+            zeroValue += delta;
+            return zeroValue;
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        size++;
+        if (size > keys.length * 3 / 4) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    public int get(int key) {
+        if (key == EMPTY) {
+            return containsZero ? zeroValue : 0;
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    public void put(int key, int value) {
+        addTo(key, value - get(key));
+    }
+
+    public int remove(int key) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                return 0;
+            }
+            int removed = zeroValue;
+            containsZero = false;
+            zeroValue = 0;
+            size--;
+            return removed;
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return 0;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int removed = values[slot];
+        keys[slot] = EMPTY;
+        values[slot] = 0;
+        size--;
+        shiftBack(slot, mask);
+        return removed;
+    }
+
+    public void removeIf(EntryPredicate predicate) {
+        if (containsZero && predicate.test(EMPTY, zeroValue)) {
+            containsZero = false;
+            zeroValue = 0;
+            size--;
+        }
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length];
+        values = new int[oldValues.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) {
+                continue;
+            }
+            if (predicate.test(oldKeys[i], oldValues[i])) {
+                size--;
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(EntryConsumer action) {
+        if (containsZero) {
+            action.accept(EMPTY, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void shiftBack(int freeSlot, int mask) {
+        int slot = (freeSlot + 1) & mask;
+        while (keys[slot] != EMPTY) {
+            int home = hash(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - freeSlot) & mask)) {
+                keys[freeSlot] = keys[slot];
+                values[freeSlot] = values[slot];
+                keys[slot] = EMPTY;
+                values[slot] = 0;
+                freeSlot = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int hash(int value) {
+        int hash = (value ^ (value >>> 16)) * 0x85EBCA6B;
+        hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    @FunctionalInterface
+    public interface EntryPredicate {
+        boolean test(int key, int value);
+    }
+}
@@ -0,0 +1,156 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+public class LruCache<K, V> {
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public LruCache(int capacity, int segmentCount) {
+        if (capacity < segmentCount || Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("Некорректные параметры кэша: " + capacity + ", " + segmentCount);
+        }
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(capacity / segmentCount, evictions);
+        }
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        long generation;
+        segment.lock.lock();
+        try {
+            value = segment.entries.get(key);
+            generation = segment.generation;
+        } finally {
+            segment.lock.unlock();
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = loader.get();
+        segment.lock.lock();
+        try {
+            if (segment.generation == generation) {
+                segment.entries.put(key, value);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        return value;
+    }
+
+    public void refresh(K key, Supplier<V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+        long generation;
+        segment.lock.lock();
+        try {
+            generation = segment.generation;
+        } finally {
+            segment.lock.unlock();
+        }
+        V value = loader.get();
+        segment.lock.lock();
+        try {
+            if (segment.generation == generation) {
+                segment.entries.put(key, value);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public List<K> keys() {
+        List<K> keys = new ArrayList<>();
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                keys.addAll(segment.entries.keySet());
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return keys;
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.entries.remove(key);
+            segment.generation++;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue()));
+                segment.generation++;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        invalidateIf((key, value) -> true);
+    }
+
+    public Stats stats() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return segments[(hash ^ hash >>> 16) & (segments.length - 1)];
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, V> entries;
+        private long generation;
+
+        private Segment(int capacity, LongAdder evictions) {
+            entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
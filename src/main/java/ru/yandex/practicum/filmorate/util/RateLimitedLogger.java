@@ -0,0 +1,63 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RateLimitedLogger {
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Logger logger;
+    private final int perSecond;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger emitted = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    public RateLimitedLogger(Logger logger, int perSecond) {
+        this.logger = logger;
+        this.perSecond = perSecond;
+    }
+
+    public void info(String format, Object argument) {
+        if (logger.isInfoEnabled() && tryAcquire()) {
+            logger.info(format, argument);
+        }
+    }
+
+    public void info(String format, Object first, Object second) {
+        if (logger.isInfoEnabled() && tryAcquire()) {
+            logger.info(format, first, second);
+        }
+    }
+
+    public void warn(String format, Object argument) {
+        if (logger.isWarnEnabled() && tryAcquire()) {
+            logger.warn(format, argument);
+        }
+    }
+
+    public void warn(String format, Object first, Object second) {
+        if (logger.isWarnEnabled() && tryAcquire()) {
+            logger.warn(format, first, second);
+        }
+    }
+
+    private boolean tryAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            emitted.set(0);
+            int dropped = suppressed.getAndSet(0);
+            if (dropped > 0) {
+                logger.info("Пропущено однотипных сообщений за последнюю секунду: {}", dropped);
+            }
+        }
+        if (emitted.incrementAndGet() <= perSecond) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+}
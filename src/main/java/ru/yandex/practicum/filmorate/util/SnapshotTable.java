@@ -0,0 +1,131 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+public class SnapshotTable<T> {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final IntFunction<T> freezer;
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final ReentrantLock changedLock = new ReentrantLock();
+    private final AtomicLong changes = new AtomicLong();
+    private IntHashSet changed = new IntHashSet();
+    private volatile Snapshot<T> current = new Snapshot<>(0, new Object[0][], 0);
+
+    public SnapshotTable(IntFunction<T> freezer) {
+        this.freezer = freezer;
+    }
+
+    public void markChanged(int id) {
+        changedLock.lock();
+        try {
+            changed.add(id);
+            changes.incrementAndGet();
+        } finally {
+            changedLock.unlock();
+        }
+    }
+
+    public Snapshot<T> current() {
+        long target = changes.get();
+        Snapshot<T> snapshot = current;
+        if (snapshot.version >= target) {
+            return snapshot;
+        }
+        publishLock.lock();
+        try {
+            snapshot = current;
+            return snapshot.version >= target ? snapshot : publish(snapshot);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private Snapshot<T> publish(Snapshot<T> base) {
+        long version;
+        IntHashSet ids;
+        changedLock.lock();
+        try {
+            version = changes.get();
+            ids = changed;
+            changed = new IntHashSet();
+        } finally {
+            changedLock.unlock();
+        }
+        int maxId = ids.stream().max().orElse(0);
+        Object[][] chunks = Arrays.copyOf(base.chunks, Math.max(base.chunks.length, (maxId >>> CHUNK_BITS) + 1));
+        boolean[] copied = new boolean[chunks.length];
+        int[] size = {base.size};
+        ids.forEach(id -> {
+            int chunk = id >>> CHUNK_BITS;
+            if (!copied[chunk]) {
+                chunks[chunk] = chunks[chunk] == null ? new Object[CHUNK_SIZE] : chunks[chunk].clone();
+                copied[chunk] = true;
+            }
+            T value = freezer.apply(id);
+            size[0] += (value == null ? 0 : 1) - (chunks[chunk][id & CHUNK_MASK] == null ? 0 : 1);
+            chunks[chunk][id & CHUNK_MASK] = value;
+        });
+        Snapshot<T> snapshot = new Snapshot<>(version, chunks, size[0]);
+        current = snapshot;
+        return snapshot;
+    }
+
+    public static final class Snapshot<T> {
+        private final long version;
+        private final Object[][] chunks;
+        private final int size;
+
+        private Snapshot(long version, Object[][] chunks, int size) {
+            this.version = version;
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(int id) {
+            int chunk = id >>> CHUNK_BITS;
+            return id < 0 || chunk >= chunks.length || chunks[chunk] == null
+                    ? null
+                    : (T) chunks[chunk][id & CHUNK_MASK];
+        }
+
+        @SuppressWarnings("unchecked")
+        public List<T> page(int after, int limit) {
+            List<T> page = new ArrayList<>(Math.min(limit, size));
+            long id = Math.max(0, after + 1L);
+            while (id >>> CHUNK_BITS < chunks.length && page.size() < limit) {
+                Object[] chunk = chunks[(int) (id >>> CHUNK_BITS)];
+                if (chunk == null) {
+                    id = ((id >>> CHUNK_BITS) + 1) << CHUNK_BITS;
+                    continue;
+                }
+                Object value = chunk[(int) id & CHUNK_MASK];
+                if (value != null) {
+                    page.add((T) value);
+                }
+                id++;
+            }
+            return page;
+        }
+
+        public List<T> values() {
+            return page(-1, size);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+public class Today {
+    private final Clock clock;
+    private volatile Day day;
+
+    public Today(Clock clock) {
+        this.clock = clock;
+        this.day = dayAt(clock.millis());
+    }
+
+    public LocalDate get() {
+        long now = clock.millis();
+        Day current = day;
+        if (now < current.startMillis() || now >= current.endMillis()) {
+            current = dayAt(now);
+            day = current;
+        }
+        return current.date();
+    }
+
+    private Day dayAt(long millis) {
+        ZoneId zone = clock.getZone();
+        LocalDate date = LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone);
+        return new Day(date, date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+
+    private record Day(LocalDate date, long startMillis, long endMillis) {
+    }
+}
@@ -0,0 +1,90 @@
+package ru.yandex.practicum.filmorate.util;
+
+import java.util.Arrays;
+
+public class TopK {
+    private final long[] heap;
+    private int size;
+
+    public TopK(int k) {
+        heap = new long[k];
+    }
+
+    public void offer(int id, int score) {
+        long entry = (long) score << 32 | (Integer.MAX_VALUE - id);
+        if (size < heap.length) {
+            heap[size] = entry;
+            siftUp(size++);
+        } else if (heap.length > 0 && entry > heap[0]) {
+            heap[0] = entry;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int threshold() {
+        return size < heap.length ? -1 : (int) (heap[0] >>> 32);
+    }
+
+    public int[] ids() {
+        long[] entries = sortedDescending();
+        int[] ids = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            ids[i] = Integer.MAX_VALUE - (int) entries[i];
+        }
+        return ids;
+    }
+
+    public int[] scores() {
+        long[] entries = sortedDescending();
+        int[] scores = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            scores[i] = (int) (entries[i] >>> 32);
+        }
+        return scores;
+    }
+
+    private long[] sortedDescending() {
+        long[] entries = Arrays.copyOf(heap, size);
+        Arrays.sort(entries);
+        for (int i = 0, j = entries.length - 1; i < j; i++, j--) {
+            long tmp = entries[i];
+            entries[i] = entries[j];
+            entries[j] = tmp;
+        }
+        return entries;
+    }
+
+    private void siftUp(int index) {
+        long entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = entry;
+    }
+
+    private void siftDown(int index) {
+        long entry = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (entry <= heap[child]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = entry;
+    }
+}
@@ -0,0 +1,38 @@
+CREATE TABLE IF NOT EXISTS users (
+    id       INT AUTO_INCREMENT PRIMARY KEY,
+    email    VARCHAR(255) NOT NULL,
+    login    VARCHAR(255) NOT NULL,
+    name     VARCHAR(255),
+    birthday DATE
+);
+
+CREATE TABLE IF NOT EXISTS films (
+    id           INT AUTO_INCREMENT PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    description  VARCHAR(200),
+    release_date DATE,
+    duration     INT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS likes (
+    film_id INT NOT NULL REFERENCES films (id),
+    user_id INT NOT NULL REFERENCES users (id),
+    liked_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL,
+    PRIMARY KEY (film_id, user_id)
+);
+
+ALTER TABLE likes ADD COLUMN IF NOT EXISTS liked_at TIMESTAMP DEFAULT LOCALTIMESTAMP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS films_release_date_idx ON films (release_date);
+CREATE INDEX IF NOT EXISTS films_duration_idx ON films (duration);
+
+CREATE INDEX IF NOT EXISTS likes_user_idx ON likes (user_id);
+CREATE INDEX IF NOT EXISTS likes_liked_at_idx ON likes (liked_at);
+
+CREATE TABLE IF NOT EXISTS friendships (
+    user_id   INT NOT NULL REFERENCES users (id),
+    friend_id INT NOT NULL REFERENCES users (id),
+    PRIMARY KEY (user_id, friend_id)
+);
+
+CREATE INDEX IF NOT EXISTS friendships_friend_idx ON friendships (friend_id);
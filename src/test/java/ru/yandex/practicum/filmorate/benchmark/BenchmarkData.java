@@ -0,0 +1,80 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public static void muteLogging() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    public static User user(int i) {
+        User user = new User();
+        user.setLogin("login" + i);
+        user.setEmail("user" + i + "@mail.ru");
+        user.setName("name" + i);
+        user.setBirthday(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+
+    public static Film film(int i) {
+        Film film = new Film();
+        film.setName("film" + i);
+        film.setDescription("description" + i);
+        film.setReleaseDate(LocalDate.of(2000, 1, 1).plusDays(i % 7000));
+        film.setDuration(60 + i % 120);
+        return film;
+    }
+
+    public static void addUsers(UserService userService, int count) {
+        for (int i = 0; i < count; i++) {
+            userService.addUser(user(i));
+        }
+    }
+
+    public static void addFilms(FilmService filmService, int count) {
+        for (int i = 0; i < count; i++) {
+            filmService.addFilm(film(i));
+        }
+    }
+
+    public static void addRandomLikes(FilmService filmService, int films, int users, int likes, Random random) {
+        for (int i = 0; i < likes; i++) {
+            filmService.addLike(random.nextInt(films) + 1, random.nextInt(users) + 1);
+        }
+    }
+
+    public static void addRandomFriendships(UserService userService, int users, int perUser, Random random) {
+        for (int userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < perUser / 2; i++) {
+                int friendId = random.nextInt(users) + 1;
+                if (friendId != userId) {
+                    userService.addFriend(userId, friendId);
+                }
+            }
+        }
+    }
+
+    public static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
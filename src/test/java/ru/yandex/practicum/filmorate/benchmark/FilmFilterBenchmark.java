@@ -0,0 +1,87 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilmFilterBenchmark {
+    private static final int FILMS = 100_000;
+    private static final int USERS = 1_000;
+    private static final int PAGE = 50;
+    private static final Map<String, FilmFilter> FILTERS = Map.of(
+            "namePrefix", new FilmFilter(null, null, null, null, "film123"),
+            "releaseYear", new FilmFilter(LocalDate.of(2010, 1, 1), LocalDate.of(2010, 12, 31), null, null, null),
+            "durationRange", new FilmFilter(null, null, 90, 95, null));
+
+    @Param({"namePrefix", "releaseYear", "durationRange"})
+    private String filter;
+
+    private FilmService filmService;
+    private FilmFilter filmFilter;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        UserService userService = new UserService(MutationJournal.NOOP);
+        filmService = new FilmService(userService, MutationJournal.NOOP);
+        BenchmarkData.addUsers(userService, USERS);
+        BenchmarkData.addFilms(filmService, FILMS);
+        BenchmarkData.addRandomLikes(filmService, FILMS, USERS, FILMS * 5, new Random(42));
+        filmFilter = FILTERS.get(filter);
+    }
+
+    @Benchmark
+    public List<Film> indexedPage() {
+        return filmService.findPage(0, PAGE, filmFilter);
+    }
+
+    @Benchmark
+    public List<Film> scannedPage() {
+        return filmService.findAll().stream()
+                .filter(filmFilter::matches)
+                .sorted(Comparator.comparingInt(Film::getId))
+                .limit(PAGE)
+                .map(Film::copy)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Film> indexedPopular() {
+        return filmService.getPopularFilms(PAGE, filmFilter);
+    }
+
+    @Benchmark
+    public List<Film> scannedPopular() {
+        return filmService.findAll().stream()
+                .filter(filmFilter::matches)
+                .sorted(Comparator.comparingInt(Film::getLikesCount).reversed().thenComparingInt(Film::getId))
+                .limit(PAGE)
+                .toList();
+    }
+}
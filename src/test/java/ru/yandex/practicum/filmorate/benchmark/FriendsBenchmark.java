@@ -0,0 +1,58 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FriendsBenchmark {
+
+    @Param({"10000", "100000"})
+    private int scale;
+
+    @Param({"10", "100"})
+    private int friendsPerUser;
+
+    private UserService userService;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        userService = new UserService(MutationJournal.NOOP);
+        random = new SplittableRandom(42);
+        BenchmarkData.addUsers(userService, scale);
+        BenchmarkData.addRandomFriendships(userService, scale, friendsPerUser, new Random(42));
+    }
+
+    @Benchmark
+    public Set<User> findAllFriends() {
+        return userService.findAllFriends(random.nextInt(scale) + 1);
+    }
+
+    @Benchmark
+    public Set<User> findAllMutualFriends() {
+        return userService.findAllMutualFriends(random.nextInt(scale) + 1, random.nextInt(scale) + 1);
+    }
+}
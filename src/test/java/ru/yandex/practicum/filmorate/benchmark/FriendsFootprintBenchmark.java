@@ -0,0 +1,62 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.util.IntHashSet;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+public final class FriendsFootprintBenchmark {
+    private static final long SEED = 42;
+
+    private FriendsFootprintBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long edges = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+
+        System.out.printf("Пользователей: %d, дружб: %d%n", users, edges);
+        report("HashSet<Integer>", measure(users, edges, i -> new HashSet<>(), Set<Integer>::add), edges);
+        report("IntHashSet", measure(users, edges, i -> new IntHashSet(), IntHashSet::add), edges);
+    }
+
+    private static <S> long measure(int users, long edges, IntFunction<S> factory, EdgeAdder<S> adder) {
+        long before = usedHeap();
+        List<S> adjacency = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            adjacency.add(factory.apply(i));
+        }
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long i = 0; i < edges; i++) {
+            int user = random.nextInt(users);
+            int friend = random.nextInt(users);
+            adder.add(adjacency.get(user), friend + 1);
+            adder.add(adjacency.get(friend), user + 1);
+        }
+        long used = usedHeap() - before;
+        Reference.reachabilityFence(adjacency);
+        return used;
+    }
+
+    private static void report(String name, long bytes, long edges) {
+        System.out.printf("%-18s %,15d байт, %6.1f байт на ребро%n", name, bytes, (double) bytes / edges);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @FunctionalInterface
+    private interface EdgeAdder<S> {
+        void add(S set, int value);
+    }
+}
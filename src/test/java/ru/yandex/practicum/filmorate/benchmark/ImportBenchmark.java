@@ -0,0 +1,120 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.BulkImporter;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+public final class ImportBenchmark {
+    private static final int USERS = 100_000;
+    private static final int PER_CALL_SAMPLE = 1_000_000;
+
+    private ImportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int films = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long likes = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+        BenchmarkData.muteLogging();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        Path directory = Files.createTempDirectory("filmorate-import");
+        Path usersFile = directory.resolve("users.ndjson");
+        Path filmsFile = directory.resolve("films.ndjson");
+        Path likesFile = directory.resolve("likes.ndjson");
+        try {
+            writeUsers(objectMapper, usersFile);
+            writeFilms(objectMapper, filmsFile, films);
+            writeLikes(likesFile, films, likes);
+
+            UserService userService = new UserService(MutationJournal.NOOP);
+            FilmService filmService = new FilmService(userService, MutationJournal.NOOP);
+            run("пользователи", usersFile, objectMapper, User.class, userService::addUsers);
+            run("фильмы", filmsFile, objectMapper, Film.class, filmService::addFilms);
+            run("лайки", likesFile, objectMapper, Like.class, filmService::addLikes);
+
+            perCallLikes(likesFile, objectMapper, filmService);
+        } finally {
+            Files.deleteIfExists(usersFile);
+            Files.deleteIfExists(filmsFile);
+            Files.deleteIfExists(likesFile);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static <T> void run(String name, Path file, ObjectMapper objectMapper, Class<T> type,
+                                BulkImporter.BatchConsumer<T> consumer) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report;
+        try (InputStream in = Files.newInputStream(file)) {
+            report = BulkImporter.importLines(in, objectMapper, type, consumer);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Импорт (%s): %,d строк за %.1f с, %,.0f строк/с, ошибок %d%n",
+                name, report.getImported(), seconds, report.getImported() / seconds, report.getFailed());
+    }
+
+    private static void perCallLikes(Path file, ObjectMapper objectMapper, FilmService filmService)
+            throws IOException {
+        long start = System.nanoTime();
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while (count < PER_CALL_SAMPLE && (line = reader.readLine()) != null) {
+                Like like = objectMapper.readValue(line, Like.class);
+                filmService.addLike(like.filmId(), like.userId());
+                count++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Поштучно (лайки): %,d вызовов за %.1f с, %,.0f вызовов/с%n",
+                count, seconds, count / seconds);
+    }
+
+    private static void writeUsers(ObjectMapper objectMapper, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < USERS; i++) {
+                writer.write(objectMapper.writeValueAsString(BenchmarkData.user(i)));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static void writeFilms(ObjectMapper objectMapper, Path file, int films) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < films; i++) {
+                Film film = BenchmarkData.film(i);
+                writer.write("{\"name\":\"" + film.getName() + "\",\"description\":\"" + film.getDescription()
+                        + "\",\"releaseDate\":\"" + film.getReleaseDate() + "\",\"duration\":" + film.getDuration()
+                        + "}");
+                writer.newLine();
+            }
+        }
+    }
+
+    private static void writeLikes(Path file, int films, long likes) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (long i = 0; i < likes; i++) {
+                writer.write("{\"filmId\":" + (random.nextInt(films) + 1) + ",\"userId\":"
+                        + (random.nextInt(USERS) + 1) + "}");
+                writer.newLine();
+            }
+        }
+    }
+}
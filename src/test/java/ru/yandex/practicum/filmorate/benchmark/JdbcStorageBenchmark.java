@@ -0,0 +1,131 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.Friendship;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.WireFormats;
+import ru.yandex.practicum.filmorate.storage.film.JdbcFilmStorage;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+import ru.yandex.practicum.filmorate.storage.user.JdbcUserStorage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JdbcStorageBenchmark {
+    private static final int USERS = 2_000;
+    private static final int FRIENDS = 200;
+    private static final int POPULAR_COUNT = 10;
+
+    @Param({"1000", "10000"})
+    private int films;
+
+    private EmbeddedDatabase database;
+    private JdbcFilmStorage jdbcFilms;
+    private JdbcUserStorage jdbcUsers;
+    private FilmService memoryFilms;
+    private UserService memoryUsers;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        Random random = new Random(42);
+        memoryUsers = new UserService(MutationJournal.NOOP);
+        memoryFilms = new FilmService(memoryUsers, MutationJournal.NOOP);
+
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        WireFormats wireFormats = new WireFormats(new ObjectMapper(), new CBORMapper(), new SmileMapper());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new JdbcTransactionManager(database));
+        jdbcFilms = new JdbcFilmStorage(jdbcTemplate, memoryFilms, new ObjectMapper(), wireFormats,
+                transactionTemplate);
+        jdbcUsers = new JdbcUserStorage(jdbcTemplate, memoryUsers, new ObjectMapper(), wireFormats, jdbcFilms,
+                transactionTemplate);
+
+        for (int i = 0; i < USERS; i++) {
+            memoryUsers.addUser(BenchmarkData.user(i));
+            jdbcUsers.addUser(BenchmarkData.user(i));
+        }
+        for (int i = 0; i < films; i++) {
+            memoryFilms.addFilm(BenchmarkData.film(i));
+            jdbcFilms.addFilm(BenchmarkData.film(i));
+        }
+
+        List<Like> likes = new ArrayList<>();
+        for (int i = 0; i < films * 5; i++) {
+            likes.add(new Like(random.nextInt(films) + 1, random.nextInt(USERS) + 1));
+        }
+        likes.forEach(like -> memoryFilms.addLike(like.filmId(), like.userId()));
+        jdbcFilms.addLikes(likes);
+
+        List<Friendship> friendships = new ArrayList<>();
+        for (int i = 0; i < FRIENDS; i++) {
+            friendships.add(new Friendship(1, random.nextInt(USERS - 2) + 3));
+            friendships.add(new Friendship(2, random.nextInt(USERS - 2) + 3));
+        }
+        friendships.forEach(friendship -> memoryUsers.addFriend(friendship.userId(), friendship.friendId()));
+        jdbcUsers.addFriendships(friendships);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public List<Film> popularInMemory() {
+        return memoryFilms.getPopularFilms(POPULAR_COUNT);
+    }
+
+    @Benchmark
+    public List<Film> popularJdbc() {
+        return jdbcFilms.getPopularFilms(POPULAR_COUNT, FilmFilter.NONE);
+    }
+
+    @Benchmark
+    public Set<User> mutualFriendsInMemory() {
+        return memoryUsers.findAllMutualFriends(1, 2);
+    }
+
+    @Benchmark
+    public Set<User> mutualFriendsJdbc() {
+        return jdbcUsers.findAllMutualFriends(1, 2);
+    }
+}
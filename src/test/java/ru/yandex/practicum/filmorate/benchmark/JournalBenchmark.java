@@ -0,0 +1,103 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ru.yandex.practicum.filmorate.storage.journal.FileMutationJournal;
+import ru.yandex.practicum.filmorate.storage.journal.ServiceReplayer;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+public final class JournalBenchmark {
+    private static final int USERS = 100_000;
+    private static final int FILMS = 10_000;
+
+    private JournalBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long entries = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        int writers = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+        BenchmarkData.muteLogging();
+        Path directory = Files.createTempDirectory("filmorate-journal");
+        try {
+            run(directory, entries, writers);
+        } finally {
+            BenchmarkData.deleteRecursively(directory);
+        }
+    }
+
+    private static void run(Path directory, long entries, int writers) throws Exception {
+        FileMutationJournal journal = new FileMutationJournal(directory, Duration.ZERO);
+        UserService userService = new UserService(journal);
+        FilmService filmService = new FilmService(userService, journal);
+        start(journal, filmService, userService);
+        BenchmarkData.addUsers(userService, USERS);
+        BenchmarkData.addFilms(filmService, FILMS);
+
+        long likes = entries - USERS - FILMS;
+        long perWriter = likes / writers;
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < writers; w++) {
+                long seed = w;
+                executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    for (long i = 0; i < perWriter; i++) {
+                        journal.likeAdded(random.nextInt(FILMS) + 1, random.nextInt(USERS) + 1);
+                        journal.awaitDurable();
+                    }
+                });
+            }
+        }
+        long writeNanos = System.nanoTime() - start;
+        long written = perWriter * writers;
+        journal.close();
+        System.out.printf("Запись: %,d записей за %.1f с, %,.0f записей/с (%d писателей, fsync на группу)%n",
+                written, writeNanos / 1e9, written / (writeNanos / 1e9), writers);
+        System.out.printf("Размер журнала: %,d байт%n", directorySize(directory));
+
+        start = System.nanoTime();
+        FileMutationJournal recovered = recover(directory);
+        System.out.printf("Восстановление из журнала: %.1f с%n", (System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        recovered.snapshot();
+        System.out.printf("Снимок: %.1f с, %,d байт на диске%n", (System.nanoTime() - start) / 1e9,
+                directorySize(directory));
+        recovered.close();
+
+        start = System.nanoTime();
+        recover(directory).close();
+        System.out.printf("Восстановление из снимка: %.1f с%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    private static FileMutationJournal recover(Path directory) {
+        FileMutationJournal journal = new FileMutationJournal(directory, Duration.ZERO);
+        UserService userService = new UserService(journal);
+        FilmService filmService = new FilmService(userService, journal);
+        start(journal, filmService, userService);
+        return journal;
+    }
+
+    private static void start(FileMutationJournal journal, FilmService filmService, UserService userService) {
+        journal.recover(new ServiceReplayer(filmService, userService));
+        filmService.rebuildIndexes();
+        journal.start(sink -> {
+            userService.exportUsers(sink::userAdded);
+            filmService.exportFilms(sink::filmAdded);
+        });
+    }
+
+    private static long directorySize(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+}
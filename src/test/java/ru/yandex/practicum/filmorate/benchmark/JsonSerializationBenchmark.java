@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"0", "100", "10000"})
+    private int relations;
+
+    private ObjectMapper objectMapper;
+    private Film film;
+    private User user;
+    private byte[] filmJson;
+    private byte[] userJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+        film = BenchmarkData.film(1);
+        film.setId(1);
+        user = BenchmarkData.user(1);
+        user.setId(1);
+        for (int i = 1; i <= relations; i++) {
+            film.addLike(i);
+            user.addFriend(i);
+        }
+        film.setLikesCount(relations);
+        filmJson = objectMapper.writeValueAsBytes(film);
+        userJson = objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] writeFilm() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(film);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public Film readFilm() throws IOException {
+        return objectMapper.readValue(filmJson, Film.class);
+    }
+
+    @Benchmark
+    public User readUser() throws IOException {
+        return objectMapper.readValue(userJson, User.class);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Views;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeanViewBenchmark {
+    private static final int FILMS = 10;
+
+    @Param({"0", "100", "10000"})
+    private int likes;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter leanWriter;
+    private List<Film> films;
+    private Film film;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        leanWriter = Views.writer(objectMapper, List.class, Views.LEAN);
+        films = new ArrayList<>(FILMS);
+        for (int i = 1; i <= FILMS; i++) {
+            Film film = BenchmarkData.film(i);
+            film.setId(i);
+            for (int userId = 1; userId <= likes; userId++) {
+                film.addLike(userId);
+            }
+            film.setLikesCount(likes);
+            films.add(film);
+        }
+        film = films.get(0);
+        System.out.printf("%nЛайков %d: full %,d байт, lean %,d байт на %d фильмов, "
+                        + "страница лайков %,d байт%n", likes, fullPage().length, leanPage().length, FILMS,
+                likesPage().length);
+    }
+
+    @Benchmark
+    public byte[] fullPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] leanPage() throws JsonProcessingException {
+        return leanWriter.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] likesPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(film.getLikeScore().sortedAfter(0, 1000));
+    }
+}
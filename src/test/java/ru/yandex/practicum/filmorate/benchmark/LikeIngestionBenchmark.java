@@ -0,0 +1,117 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.LikeEvent;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.LikeIngestionQueue;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class LikeIngestionBenchmark {
+    private static final int BATCH = 64;
+
+    @Param({"100000"})
+    private int users;
+
+    @Param({"100"})
+    private int films;
+
+    private FilmService filmService;
+    private LikeIngestionQueue queue;
+    private final SplittableRandom seeds = new SplittableRandom(42);
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        UserService userService = new UserService(MutationJournal.NOOP);
+        filmService = new FilmService(userService, MutationJournal.NOOP);
+        BenchmarkData.addUsers(userService, users);
+        BenchmarkData.addFilms(filmService, films);
+        queue = new LikeIngestionQueue(filmService::applyLikeEvents, 4096, 1024);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        queue.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private SplittableRandom random;
+        private final List<LikeEvent> batch = new ArrayList<>(BATCH);
+
+        @Setup
+        public void setUp(LikeIngestionBenchmark benchmark) {
+            synchronized (benchmark.seeds) {
+                random = benchmark.seeds.split();
+            }
+        }
+
+        private LikeEvent next(LikeIngestionBenchmark benchmark) {
+            double skew = random.nextDouble();
+            int filmId = (int) (benchmark.films * skew * skew * skew) + 1;
+            int userId = random.nextInt(benchmark.users) + 1;
+            return new LikeEvent(filmId, userId, random.nextInt(10) == 0 ? LikeEvent.Op.UNLIKE : LikeEvent.Op.LIKE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void perRequest(ThreadState state) {
+        for (int i = 0; i < BATCH; i++) {
+            LikeEvent event = state.next(this);
+            if (event.op() == LikeEvent.Op.LIKE) {
+                filmService.addLike(event.filmId(), event.userId());
+            } else {
+                filmService.deleteLike(event.filmId(), event.userId());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void batched(ThreadState state) {
+        state.batch.clear();
+        for (int i = 0; i < BATCH; i++) {
+            state.batch.add(state.next(this));
+        }
+        filmService.applyLikeEvents(state.batch, (message, index) -> {
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void queued(ThreadState state) {
+        List<LikeEvent> events = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            events.add(state.next(this));
+        }
+        queue.submit(events);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+import ru.yandex.practicum.filmorate.util.RateLimitedLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final int USERS = 10_000;
+    private static final int FILMS = 1_000;
+    private static final int QUEUE_SIZE = 8192;
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    @Param({"every", "sampled"})
+    private String logging;
+
+    private FilmService filmService;
+    private Logger logger;
+    private RateLimitedLogger sampledLogger;
+    private Appender<ILoggingEvent> root;
+    private Path file;
+    private final SplittableRandom seeds = new SplittableRandom(42);
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkData.muteLogging();
+        UserService userService = new UserService(MutationJournal.NOOP);
+        filmService = new FilmService(userService, MutationJournal.NOOP);
+        BenchmarkData.addUsers(userService, USERS);
+        BenchmarkData.addFilms(filmService, FILMS);
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        file = Files.createTempFile("filmorate-log", ".log");
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger{39} : %m%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+        root = fileAppender;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(QUEUE_SIZE);
+            async.setDiscardingThreshold(QUEUE_SIZE / 5);
+            async.setNeverBlock(true);
+            async.addAppender(fileAppender);
+            async.start();
+            root = async;
+        }
+        logger = context.getLogger(LoggingBenchmark.class);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(root);
+        sampledLogger = new RateLimitedLogger(logger, 10);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        logger.detachAppender(root);
+        root.stop();
+        Files.deleteIfExists(file);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private SplittableRandom random;
+
+        @Setup
+        public void setUp(LoggingBenchmark benchmark) {
+            synchronized (benchmark.seeds) {
+                random = benchmark.seeds.split();
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean addLike(ThreadState state) {
+        int filmId = state.random.nextInt(FILMS) + 1;
+        int userId = state.random.nextInt(USERS) + 1;
+        filmService.addLike(filmId, userId);
+        if ("sampled".equals(logging)) {
+            sampledLogger.info("Пользователь {} поставил лайк фильму {}", userId, filmId);
+        } else {
+            logger.info("Пользователь {} поставил лайк фильму {}", userId, filmId);
+        }
+        return true;
+    }
+
+    @Benchmark
+    public User logOnly(ThreadState state) {
+        User user = BenchmarkData.user(state.random.nextInt(USERS));
+        if ("sampled".equals(logging)) {
+            sampledLogger.info("Добавлен пользователь: {}, {}", user.getLogin(), user.getEmail());
+        } else {
+            logger.info("Добавлен пользователь: {}, {}", user.getLogin(), user.getEmail());
+        }
+        return user;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutualFriendsBenchmark {
+    private static final int USER_ID = 1;
+    private static final int OTHER_USER_ID = 2;
+
+    @Param({"10", "1000", "100000"})
+    private int friends;
+
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        userService = new UserService(MutationJournal.NOOP);
+        int overlap = friends / 2;
+        BenchmarkData.addUsers(userService, 2 + 2 * friends - overlap);
+
+        int nextId = OTHER_USER_ID + 1;
+        for (int i = 0; i < overlap; i++, nextId++) {
+            userService.addFriend(USER_ID, nextId);
+            userService.addFriend(OTHER_USER_ID, nextId);
+        }
+        for (int i = overlap; i < friends; i++) {
+            userService.addFriend(USER_ID, nextId++);
+            userService.addFriend(OTHER_USER_ID, nextId++);
+        }
+    }
+
+    @Benchmark
+    public Set<User> idIntersection() {
+        return userService.findAllMutualFriends(USER_ID, OTHER_USER_ID);
+    }
+
+    @Benchmark
+    public Set<User> materializedRetainAll() {
+        Set<User> userFriends = new HashSet<>(userService.findAllFriends(USER_ID));
+        userFriends.retainAll(userService.findAllFriends(OTHER_USER_ID));
+        return userFriends;
+    }
+}
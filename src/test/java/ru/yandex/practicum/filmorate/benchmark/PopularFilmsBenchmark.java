@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PopularFilmsBenchmark {
+    private static final int USERS = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    private int films;
+
+    @Param({"1", "10", "100"})
+    private int count;
+
+    private FilmService filmService;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        UserService userService = new UserService(MutationJournal.NOOP);
+        filmService = new FilmService(userService, MutationJournal.NOOP);
+        random = new Random(42);
+        BenchmarkData.addUsers(userService, USERS);
+        BenchmarkData.addFilms(filmService, films);
+        BenchmarkData.addRandomLikes(filmService, films, USERS, films * 5, random);
+    }
+
+    @Benchmark
+    public List<Film> indexedTopN() {
+        return filmService.getPopularFilms(count);
+    }
+
+    @Benchmark
+    public List<Film> trendingTopN() {
+        return filmService.getTrendingFilms(count, "24h");
+    }
+
+    @Benchmark
+    public List<Film> fullSortTopN() {
+        return filmService.findAll().stream()
+                .sorted(Comparator.comparingInt(Film::getLikesCount).reversed())
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void addLike() {
+        filmService.addLike(random.nextInt(films) + 1, random.nextInt(USERS) + 1);
+    }
+}
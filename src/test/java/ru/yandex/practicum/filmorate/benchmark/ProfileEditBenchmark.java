@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserPatch;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfileEditBenchmark {
+
+    @Param({"10", "1000"})
+    private int friends;
+
+    private ObjectMapper objectMapper;
+    private UserService userService;
+    private byte[] userJson;
+    private byte[][] patchJson;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkData.muteLogging();
+        objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        userService = new UserService(MutationJournal.NOOP);
+        BenchmarkData.addUsers(userService, friends + 1);
+        for (int friendId = 2; friendId <= friends + 1; friendId++) {
+            userService.addFriend(1, friendId);
+        }
+        userJson = objectMapper.writeValueAsBytes(userService.findPage(0, 1).get(0));
+        patchJson = new byte[][]{
+                objectMapper.writeValueAsBytes(new UserPatch(null, null, "first", null)),
+                objectMapper.writeValueAsBytes(new UserPatch(null, null, "second", null))
+        };
+    }
+
+    @Benchmark
+    public byte[] putFullProfile() throws IOException {
+        User user = objectMapper.readValue(userJson, User.class);
+        user.setName(next++ % 2 == 0 ? "first" : "second");
+        return objectMapper.writeValueAsBytes(userService.updateUser(user));
+    }
+
+    @Benchmark
+    public byte[] patchName() throws IOException {
+        UserPatch patch = objectMapper.readValue(patchJson[next++ % 2], UserPatch.class);
+        return objectMapper.writeValueAsBytes(userService.patchUser(1, patch));
+    }
+}
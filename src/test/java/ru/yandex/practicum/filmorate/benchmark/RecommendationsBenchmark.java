@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendationsBenchmark {
+    private static final int COUNT = 10;
+
+    @Param({"100000"})
+    private int users;
+
+    @Param({"10000"})
+    private int films;
+
+    @Param({"20"})
+    private int likesPerUser;
+
+    private FilmService filmService;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        UserService userService = new UserService(MutationJournal.NOOP);
+        filmService = new FilmService(userService, MutationJournal.NOOP);
+        random = new SplittableRandom(42);
+        BenchmarkData.addUsers(userService, users);
+        BenchmarkData.addFilms(filmService, films);
+        for (int userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < likesPerUser; i++) {
+                double skew = random.nextDouble();
+                filmService.addLike((int) (films * skew * skew) + 1, userId);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Film> recommendations() {
+        return filmService.getRecommendations(random.nextInt(users) + 1, COUNT);
+    }
+}
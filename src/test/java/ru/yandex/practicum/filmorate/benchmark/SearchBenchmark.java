@@ -0,0 +1,120 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+import ru.yandex.practicum.filmorate.util.TopK;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+    private static final String[] SYLLABLES = {"ка", "ро", "ми", "на", "ст", "ол", "ве", "ту", "ли", "да", "бе",
+            "го", "жи", "зо", "ку", "ле", "мо", "ну", "пи", "ры", "се", "тё", "фа", "хо", "че"};
+    private static final int VOCABULARY = 20_000;
+    private static final int BATCH = 10_000;
+    private static final int COUNT = 10;
+
+    @Param({"1000000"})
+    private int films;
+
+    @Param({"rare", "common", "twoTerms"})
+    private String query;
+
+    private FilmService filmService;
+    private String[] words;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        filmService = new FilmService(new UserService(MutationJournal.NOOP), MutationJournal.NOOP);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = SYLLABLES[i % SYLLABLES.length] + SYLLABLES[i / SYLLABLES.length % SYLLABLES.length]
+                    + SYLLABLES[i / (SYLLABLES.length * SYLLABLES.length) % SYLLABLES.length];
+        }
+        Random random = new Random(42);
+        List<Film> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < films; i++) {
+            Film film = new Film();
+            film.setName(phrase(random, 3));
+            film.setDescription(phrase(random, 20));
+            film.setReleaseDate(LocalDate.of(2000, 1, 1));
+            film.setDuration(90);
+            batch.add(film);
+            if (batch.size() == BATCH) {
+                filmService.addFilms(batch, (message, index) -> {
+                });
+                batch = new ArrayList<>(BATCH);
+            }
+        }
+        filmService.addFilms(batch, (message, index) -> {
+        });
+        text = switch (query) {
+            case "rare" -> words[5_000];
+            case "common" -> words[0];
+            default -> words[1] + " " + words[20];
+        };
+    }
+
+    private String phrase(Random random, int length) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            int rank = (int) Math.pow(VOCABULARY, random.nextDouble()) - 1;
+            phrase.append(i == 0 ? "" : " ").append(words[rank]);
+        }
+        return phrase.toString();
+    }
+
+    @Benchmark
+    public List<Film> indexedSearch() {
+        return filmService.searchFilms(text, COUNT);
+    }
+
+    @Benchmark
+    @Measurement(iterations = 2, time = 1)
+    public int[] scannedSearch() {
+        String[] terms = text.toLowerCase(Locale.ROOT).split(" ");
+        TopK top = new TopK(COUNT);
+        for (Film film : filmService.findAll()) {
+            int matches = matches(film, terms);
+            if (matches > 0) {
+                top.offer(film.getId(), matches);
+            }
+        }
+        return top.ids();
+    }
+
+    private static int matches(Film film, String[] terms) {
+        String name = film.getName().toLowerCase(Locale.ROOT);
+        String description = film.getDescription().toLowerCase(Locale.ROOT);
+        int matches = 0;
+        for (String term : terms) {
+            matches += (name.contains(term) ? 3 : 0) + (description.contains(term) ? 1 : 0);
+        }
+        return matches;
+    }
+}
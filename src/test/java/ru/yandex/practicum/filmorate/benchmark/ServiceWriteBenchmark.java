@@ -0,0 +1,70 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceWriteBenchmark {
+
+    @Param({"10000", "100000"})
+    private int scale;
+
+    private UserService userService;
+    private FilmService filmService;
+    private SplittableRandom random;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        userService = new UserService(MutationJournal.NOOP);
+        filmService = new FilmService(userService, MutationJournal.NOOP);
+        random = new SplittableRandom(42);
+        BenchmarkData.addUsers(userService, scale);
+        BenchmarkData.addFilms(filmService, scale);
+        for (int i = 0; i < scale * 5; i++) {
+            filmService.addLike(random.nextInt(scale) + 1, random.nextInt(scale) + 1);
+        }
+    }
+
+    @Benchmark
+    public Film addFilm() {
+        return filmService.addFilm(BenchmarkData.film(next++));
+    }
+
+    @Benchmark
+    public User addUser() {
+        return userService.addUser(BenchmarkData.user(next++));
+    }
+
+    @Benchmark
+    public void addAndDeleteLike() {
+        int filmId = random.nextInt(scale) + 1;
+        int userId = random.nextInt(scale) + 1;
+        filmService.addLike(filmId, userId);
+        filmService.deleteLike(filmId, userId);
+    }
+}
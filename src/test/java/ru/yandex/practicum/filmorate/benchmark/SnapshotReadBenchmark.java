@@ -0,0 +1,78 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotReadBenchmark {
+    private static final int USERS = 1_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"10000", "100000"})
+    private int films;
+
+    private FilmService filmService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        UserService userService = new UserService(MutationJournal.NOOP);
+        filmService = new FilmService(userService, MutationJournal.NOOP);
+        BenchmarkData.addUsers(userService, USERS);
+        BenchmarkData.addFilms(filmService, films);
+        BenchmarkData.addRandomLikes(filmService, films, USERS, films * 5, new Random(42));
+    }
+
+    @Benchmark
+    @Group("readOnly")
+    public List<Film> page() {
+        return filmService.findPage(ThreadLocalRandom.current().nextInt(films - PAGE_SIZE), PAGE_SIZE);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public List<Film> pageUnderLikes() {
+        return filmService.findPage(ThreadLocalRandom.current().nextInt(films - PAGE_SIZE), PAGE_SIZE);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public List<Film> popularUnderLikes() {
+        return filmService.getPopularFilms(10);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void like() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        filmService.addLike(random.nextInt(films) + 1, random.nextInt(USERS) + 1);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuggestionsBenchmark {
+    private static final int CACHED_COUNT = 10;
+    private static final int UNCACHED_COUNT = 100;
+
+    @Param({"100000"})
+    private int users;
+
+    @Param({"20"})
+    private int friends;
+
+    @Param({"10"})
+    private int celebrities;
+
+    @Param({"1000"})
+    private int activeUsers;
+
+    private UserService userService;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        userService = new UserService(MutationJournal.NOOP);
+        random = new SplittableRandom(42);
+        BenchmarkData.addUsers(userService, users);
+        BenchmarkData.addRandomFriendships(userService, users, friends, new Random(42));
+        for (int celebrity = 1; celebrity <= celebrities; celebrity++) {
+            for (int fan = celebrities + 1; fan <= users; fan += celebrity + 1) {
+                userService.addFriend(celebrity, fan);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<User> cachedSuggestions() {
+        return userService.getSuggestions(random.nextInt(activeUsers) + 1, CACHED_COUNT);
+    }
+
+    @Benchmark
+    public List<User> computedSuggestions() {
+        return userService.getSuggestions(random.nextInt(users) + 1, UNCACHED_COUNT);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    private UserService userService;
+    private FilmService filmService;
+    private User user;
+    private Film film;
+    private String birthdayText;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.muteLogging();
+        userService = new UserService(MutationJournal.NOOP);
+        filmService = new FilmService(userService, MutationJournal.NOOP);
+        user = BenchmarkData.user(1);
+        film = BenchmarkData.film(1);
+        birthdayText = user.getBirthday().toString();
+        today = LocalDate.now();
+    }
+
+    @Benchmark
+    public User validateUser() {
+        userService.emailCheck(user);
+        userService.loginCheck(user);
+        userService.birthdayCheck(user);
+        userService.nameCheck(user);
+        return user;
+    }
+
+    @Benchmark
+    public Film validateFilm() {
+        filmService.checkName(film);
+        filmService.checkDate(film);
+        filmService.checkDuration(film);
+        filmService.checkLength(film);
+        return film;
+    }
+
+    @Benchmark
+    public boolean parsedBirthdayCheck() {
+        return LocalDate.parse(birthdayText).isAfter(today);
+    }
+}
@@ -0,0 +1,154 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public final class VirtualThreadsLoadBenchmark {
+    private static final int USERS = 10_000;
+    private static final int FILMS = 1_000;
+    private static final int WARMUP_SECONDS = 5;
+    private static final int LIKE_PERCENT = 20;
+
+    private VirtualThreadsLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        for (boolean virtual : new boolean[]{false, true}) {
+            Path directory = Files.createTempDirectory("filmorate-load");
+            try {
+                run(virtual, directory, clients, seconds);
+            } finally {
+                BenchmarkData.deleteRecursively(directory);
+            }
+        }
+    }
+
+    private static void run(boolean virtual, Path directory, int clients, int seconds) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmorateApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--filmorate.journal.enabled=true",
+                "--filmorate.journal.directory=" + directory,
+                "--filmorate.journal.snapshot-interval=0s",
+                "--logging.level.root=WARN");
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            seed(context);
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            load(client, baseUrl, clients, WARMUP_SECONDS);
+            Result result = load(client, baseUrl, clients, seconds);
+            System.out.printf("Потоки %s: %,d запросов за %d с, %,.0f запросов/с, p50 %.2f мс, p99 %.2f мс, "
+                            + "ошибок %d%n", virtual ? "виртуальные" : "платформенные", result.latencies().length,
+                    seconds, result.latencies().length / (double) seconds, result.percentile(0.50),
+                    result.percentile(0.99), result.errors());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        UserService userService = context.getBean(UserService.class);
+        FilmService filmService = context.getBean(FilmService.class);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(BenchmarkData.user(i));
+        }
+        userService.addUsers(users, (message, index) -> {
+        });
+        List<Film> films = new ArrayList<>(FILMS);
+        for (int i = 0; i < FILMS; i++) {
+            films.add(BenchmarkData.film(i));
+        }
+        filmService.addFilms(films, (message, index) -> {
+        });
+    }
+
+    private static Result load(HttpClient client, String baseUrl, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Recorder>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long seed = c;
+                futures.add(executor.submit(() -> drive(client, baseUrl, new SplittableRandom(seed), deadline)));
+            }
+        }
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<Recorder> future : futures) {
+            Recorder recorder = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + recorder.size);
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            errors += recorder.errors;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors);
+    }
+
+    private static Recorder drive(HttpClient client, String baseUrl, SplittableRandom random, long deadline) {
+        Recorder recorder = new Recorder();
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = random.nextInt(100) < LIKE_PERCENT
+                    ? HttpRequest.newBuilder(URI.create(baseUrl + "/films/" + (random.nextInt(FILMS) + 1)
+                            + "/like/" + (random.nextInt(USERS) + 1)))
+                    .PUT(HttpRequest.BodyPublishers.noBody())
+                    .build()
+                    : HttpRequest.newBuilder(URI.create(baseUrl + "/films/popular?count=10")).GET().build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                recorder.record(System.nanoTime() - start, response.statusCode() >= 400);
+            } catch (Exception e) {
+                recorder.record(System.nanoTime() - start, true);
+            }
+        }
+        return recorder;
+    }
+
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        private void record(long nanos, boolean error) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+    }
+
+    private record Result(long[] latencies, long errors) {
+        private double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = Math.min(latencies.length - 1, (int) Math.ceil(quantile * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final int FILMS = 10;
+    private static final int FRIENDS = 100;
+    private static final int LIKES = 1000;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private List<Film> popular;
+    private List<User> friends;
+    private byte[] popularBytes;
+    private byte[] friendsBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            case "smile" -> SmileMapper.builder().addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+            default -> JsonMapper.builder().addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        };
+        popular = new ArrayList<>(FILMS);
+        for (int i = 1; i <= FILMS; i++) {
+            Film film = BenchmarkData.film(i);
+            film.setId(i);
+            for (int userId = 1; userId <= LIKES; userId++) {
+                film.addLike(userId * 7 + i);
+            }
+            film.setLikesCount(LIKES);
+            popular.add(film);
+        }
+        friends = new ArrayList<>(FRIENDS);
+        for (int i = 1; i <= FRIENDS; i++) {
+            User user = BenchmarkData.user(i);
+            user.setId(i);
+            for (int friendId = 1; friendId <= 10; friendId++) {
+                user.addFriend(friendId * 13 + i);
+            }
+            friends.add(user);
+        }
+        popularBytes = objectMapper.writeValueAsBytes(popular);
+        friendsBytes = objectMapper.writeValueAsBytes(friends);
+        System.out.printf("%n%s: популярные %,d байт, друзья %,d байт%n", format, popularBytes.length,
+                friendsBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writePopular() throws IOException {
+        return objectMapper.writeValueAsBytes(popular);
+    }
+
+    @Benchmark
+    public Film[] readPopular() throws IOException {
+        return objectMapper.readValue(popularBytes, Film[].class);
+    }
+
+    @Benchmark
+    public byte[] writeFriends() throws IOException {
+        return objectMapper.writeValueAsBytes(friends);
+    }
+
+    @Benchmark
+    public User[] readFriends() throws IOException {
+        return objectMapper.readValue(friendsBytes, User[].class);
+    }
+}
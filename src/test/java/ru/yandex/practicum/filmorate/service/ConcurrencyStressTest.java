@@ -0,0 +1,158 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyStressTest {
+    private static final int THREADS = 8;
+    private static final int USERS = 200;
+    private static final int FILMS = 50;
+    private static final int OPERATIONS = 20_000;
+
+    UserService userService = new UserService(MutationJournal.NOOP);
+    FilmService filmService = new FilmService(userService, MutationJournal.NOOP);
+
+    @Test
+    void shouldGenerateUniqueIdsUnderConcurrentAdds() throws Exception {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        runConcurrently(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                ids.add(userService.addUser(user(i)).getId());
+                ids.add(-filmService.addFilm(film(i)).getId());
+            }
+        });
+
+        assertEquals(THREADS * 1_000 * 2, ids.size());
+        assertEquals(THREADS * 1_000, userService.findAllUsers().size());
+        assertEquals(THREADS * 1_000, filmService.findAll().size());
+    }
+
+    @Test
+    void shouldKeepLikesConsistentUnderConcurrentUpdates() throws Exception {
+        for (int i = 0; i < USERS; i++) {
+            userService.addUser(user(i));
+        }
+        for (int i = 0; i < FILMS; i++) {
+            filmService.addFilm(film(i));
+        }
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS; i++) {
+                int filmId = random.nextInt(FILMS) + 1;
+                int userId = random.nextInt(USERS) + 1;
+                if (random.nextInt(3) == 0) {
+                    filmService.deleteLike(filmId, userId);
+                } else {
+                    filmService.addLike(filmId, userId);
+                }
+                if (i % 100 == 0) {
+                    filmService.getPopularFilms(10);
+                }
+            }
+        });
+
+        for (Film film : filmService.findAll()) {
+            assertEquals(film.getLikeScore().size(), film.getLikesCount());
+        }
+        List<Integer> expected = filmService.findAll().stream()
+                .sorted(Comparator.comparingInt(Film::getLikesCount).reversed()
+                        .thenComparingInt(Film::getId))
+                .map(Film::getId)
+                .collect(Collectors.toList());
+        List<Integer> actual = filmService.getPopularFilms(FILMS).stream()
+                .map(Film::getId)
+                .collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shouldKeepFriendshipSymmetricUnderConcurrentUpdates() throws Exception {
+        for (int i = 0; i < USERS; i++) {
+            userService.addUser(user(i));
+        }
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS; i++) {
+                int userId = random.nextInt(USERS) + 1;
+                int friendId = random.nextInt(USERS) + 1;
+                if (userId == friendId) {
+                    continue;
+                }
+                if (random.nextInt(3) == 0) {
+                    userService.deleteFriend(userId, friendId);
+                } else {
+                    userService.addFriend(userId, friendId);
+                }
+                if (i % 100 == 0) {
+                    userService.findAllFriends(userId);
+                }
+            }
+        });
+
+        for (User user : userService.findAllUsers()) {
+            for (int friendId : user.getFriendsList().toArray()) {
+                assertTrue(userService.getUsers().get(friendId).getFriendsList().contains(user.getId()),
+                        "Дружба " + user.getId() + " -> " + friendId + " не взаимна");
+            }
+        }
+    }
+
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setLogin("login" + i);
+        user.setEmail("user" + i + "@mail.ru");
+        user.setBirthday(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+
+    private static Film film(int i) {
+        Film film = new Film();
+        film.setName("name" + i);
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        film.setDuration(100);
+        return film;
+    }
+}
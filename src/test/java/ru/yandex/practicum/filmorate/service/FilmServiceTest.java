@@ -3,17 +3,29 @@ package ru.yandex.practicum.filmorate.service;
 import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmPatch;
+import ru.yandex.practicum.filmorate.model.LikeEvent;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
 import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.LikeIngestionQueue;
 import ru.yandex.practicum.filmorate.storage.service.UserService;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class FilmServiceTest {
 
-    private UserService userService;
-    FilmService filmService = new FilmService(userService);
+    private UserService userService = new UserService(MutationJournal.NOOP);
+    FilmService filmService = new FilmService(userService, MutationJournal.NOOP);
 
     @Test
     void shouldThrowExceptionIfNameIsBlank() {
@@ -69,4 +81,387 @@ class FilmServiceTest {
             filmService.addFilm(film);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnPopularFilmsInSameOrderAsFullSort() {
+        Random random = new Random(42);
+        for (int i = 0; i < 50; i++) {
+            User user = new User();
+            user.setLogin("login" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.addUser(user);
+        }
+        for (int i = 0; i < 200; i++) {
+            Film film = new Film();
+            film.setName("name" + i);
+            film.setDescription("descr");
+            film.setReleaseDate(LocalDate.of(2000, 10, 10));
+            film.setDuration(100);
+            filmService.addFilm(film);
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            int filmId = random.nextInt(200) + 1;
+            int userId = random.nextInt(50) + 1;
+            if (random.nextInt(4) == 0) {
+                filmService.deleteLike(filmId, userId);
+            } else {
+                filmService.addLike(filmId, userId);
+            }
+        }
+
+        for (int count : new int[]{1, 10, 57, 200, 500}) {
+            List<Integer> expected = filmService.findAll().stream()
+                    .sorted(Comparator.comparingInt(Film::getLikesCount).reversed()
+                            .thenComparingInt(Film::getId))
+                    .limit(count)
+                    .map(Film::getId)
+                    .collect(Collectors.toList());
+            List<Integer> actual = filmService.getPopularFilms(count).stream()
+                    .map(Film::getId)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, actual);
+        }
+        filmService.findAll().forEach(film -> assertEquals(film.getLikeScore().size(), film.getLikesCount()));
+    }
+
+    @Test
+    void shouldNotCountRepeatedLike() {
+        User user = new User();
+        user.setLogin("login");
+        user.setEmail("botbot@karta.ru");
+        userService.addUser(user);
+        Film film = new Film();
+        film.setName("name");
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        film.setDuration(100);
+        filmService.addFilm(film);
+
+        filmService.addLike(film.getId(), user.getId());
+        filmService.addLike(film.getId(), user.getId());
+        assertEquals(1, film.getLikesCount());
+
+        filmService.deleteLike(film.getId(), user.getId());
+        filmService.deleteLike(film.getId(), user.getId());
+        assertEquals(0, film.getLikesCount());
+    }
+
+    @Test
+    void shouldIgnoreClientLikesOnCreate() {
+        Film film = new Film();
+        film.setName("name");
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        film.setDuration(100);
+        film.setLikesCount(1000);
+        film.getLikeScore().add(42);
+        filmService.addFilm(film);
+
+        Film stored = filmService.findAll().get(0);
+        assertEquals(0, stored.getLikesCount());
+        assertTrue(stored.getLikeScore().isEmpty());
+        assertEquals(0, filmService.getPopularFilms(1).get(0).getLikesCount());
+    }
+
+    @Test
+    void shouldKeepPopularCacheWhenLikeDoesNotReachTop() {
+        for (int i = 1; i <= 3; i++) {
+            User user = new User();
+            user.setLogin("login" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.addUser(user);
+            Film film = new Film();
+            film.setName("film" + i);
+            film.setDescription("descr");
+            film.setReleaseDate(LocalDate.of(2000, 10, 10));
+            filmService.addFilm(film);
+        }
+        filmService.addLike(1, 1);
+        filmService.addLike(1, 2);
+        filmService.addLike(2, 1);
+        assertEquals(List.of(1, 2), filmService.getPopularFilms(2).stream().map(Film::getId).toList());
+
+        filmService.addLike(3, 1);
+        assertEquals(List.of(1, 2), filmService.getPopularFilms(2).stream().map(Film::getId).toList());
+        assertEquals(1, filmService.popularCacheStats().hits());
+
+        filmService.addLike(3, 2);
+        assertEquals(List.of(1, 3), filmService.getPopularFilms(2).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    void shouldRecommendFilmsLikedBySimilarUsers() {
+        for (int i = 1; i <= 4; i++) {
+            User user = new User();
+            user.setLogin("login" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.addUser(user);
+        }
+        for (int i = 1; i <= 5; i++) {
+            Film film = new Film();
+            film.setName("film" + i);
+            film.setDescription("descr");
+            film.setReleaseDate(LocalDate.of(2000, 10, 10));
+            filmService.addFilm(film);
+        }
+        filmService.addLike(1, 1);
+        filmService.addLike(2, 1);
+        filmService.addLike(1, 2);
+        filmService.addLike(2, 2);
+        filmService.addLike(3, 2);
+        filmService.addLike(1, 3);
+        filmService.addLike(4, 3);
+        filmService.addLike(5, 4);
+
+        assertEquals(List.of(3, 4), filmService.getRecommendations(1, 10).stream().map(Film::getId).toList());
+
+        filmService.deleteLike(3, 2);
+        assertEquals(List.of(4), filmService.getRecommendations(1, 10).stream().map(Film::getId).toList());
+        assertEquals(List.of(4),
+                filmService.getRecommendations(1, Integer.MAX_VALUE).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    void shouldApplyLikeEventsPerFilmAndReportRejected() {
+        for (int i = 1; i <= 3; i++) {
+            User user = new User();
+            user.setLogin("login" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.addUser(user);
+        }
+        for (int i = 1; i <= 2; i++) {
+            Film film = new Film();
+            film.setName("film" + i);
+            film.setDescription("descr");
+            film.setReleaseDate(LocalDate.of(2000, 10, 10));
+            filmService.addFilm(film);
+        }
+        filmService.addLike(1, 1);
+
+        List<Integer> rejected = new ArrayList<>();
+        filmService.applyLikeEvents(List.of(
+                new LikeEvent(2, 1, LikeEvent.Op.LIKE),
+                new LikeEvent(2, 2, LikeEvent.Op.LIKE),
+                new LikeEvent(1, 1, LikeEvent.Op.UNLIKE),
+                new LikeEvent(2, 3, LikeEvent.Op.LIKE),
+                new LikeEvent(2, 3, LikeEvent.Op.UNLIKE),
+                new LikeEvent(7, 1, LikeEvent.Op.LIKE),
+                new LikeEvent(2, 9, LikeEvent.Op.LIKE)), (message, index) -> rejected.add(index));
+
+        assertEquals(List.of(5, 6), rejected);
+        assertEquals(List.of(2, 1), filmService.getPopularFilms(2).stream().map(Film::getId).toList());
+        assertEquals(2, filmService.getPopularFilms(1).get(0).getLikesCount());
+        assertEquals(0, filmService.getPopularFilms(2).get(1).getLikesCount());
+    }
+
+    @Test
+    void shouldFilterFilmsInSameOrderAsFullScan() {
+        Random random = new Random(7);
+        String[] names = {"Alien", "Aliens", "Amadeus", "Brazil", "alphaville"};
+        for (int i = 0; i < 20; i++) {
+            User user = new User();
+            user.setLogin("login" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.addUser(user);
+        }
+        for (int i = 0; i < 300; i++) {
+            Film film = new Film();
+            film.setName(names[random.nextInt(names.length)] + " " + i);
+            film.setDescription("descr");
+            film.setReleaseDate(LocalDate.of(1950 + random.nextInt(70), 1 + random.nextInt(12), 1));
+            film.setDuration(60 + random.nextInt(120));
+            filmService.addFilm(film);
+        }
+        for (int i = 0; i < 2000; i++) {
+            filmService.addLike(random.nextInt(300) + 1, random.nextInt(20) + 1);
+        }
+        Film renamed = filmService.findPage(0, 1).get(0).copy();
+        renamed.setName("Brazil again");
+        renamed.setDuration(500);
+        filmService.updateFilm(renamed);
+
+        List<FilmFilter> filters = List.of(
+                new FilmFilter(null, null, null, null, "ali"),
+                new FilmFilter(LocalDate.of(1980, 1, 1), LocalDate.of(1989, 12, 31), null, null, null),
+                new FilmFilter(null, null, 90, 120, null),
+                new FilmFilter(LocalDate.of(1970, 1, 1), null, null, 150, "AL"),
+                new FilmFilter(null, null, 400, null, "brazil"));
+        for (FilmFilter filter : filters) {
+            List<Film> matching = filmService.findAll().stream().filter(filter::matches).toList();
+            assertEquals(matching.stream().map(Film::getId).sorted().limit(25).toList(),
+                    filmService.findPage(0, 25, filter).stream().map(Film::getId).toList());
+            assertEquals(matching.stream()
+                            .sorted(Comparator.comparingInt(Film::getLikesCount).reversed()
+                                    .thenComparingInt(Film::getId))
+                            .limit(10)
+                            .map(Film::getId)
+                            .toList(),
+                    filmService.getPopularFilms(10, filter).stream().map(Film::getId).toList());
+        }
+        assertEquals(List.of(renamed.getId()), filmService.findPage(0, 10, filters.get(4)).stream()
+                .map(Film::getId).toList());
+        assertEquals(List.of(renamed.getId()), filmService.getPopularFilms(Integer.MAX_VALUE, filters.get(4))
+                .stream().map(Film::getId).toList());
+        assertThrows(ValidationException.class, () -> filmService.findPage(0, 10,
+                new FilmFilter(null, null, 120, 90, null)));
+    }
+
+    @Test
+    void shouldRankSearchResultsAndFollowUpdates() {
+        Film hedgehog = new Film();
+        hedgehog.setName("Ёжик и туман");
+        hedgehog.setDescription("Мультфильм про ёжика и медвежонка");
+        hedgehog.setReleaseDate(LocalDate.of(1975, 1, 1));
+        hedgehog.setDuration(10);
+        Film fog = new Film();
+        fog.setName("Туман");
+        fog.setDescription("Фильм о тумане в горах, где туман не рассеивается");
+        fog.setReleaseDate(LocalDate.of(2010, 1, 1));
+        fog.setDuration(100);
+        Film other = new Film();
+        other.setName("Солярис");
+        other.setDescription("Фантастика");
+        other.setReleaseDate(LocalDate.of(1972, 1, 1));
+        other.setDuration(160);
+        int hedgehogId = filmService.addFilm(hedgehog).getId();
+        int fogId = filmService.addFilm(fog).getId();
+        int otherId = filmService.addFilm(other).getId();
+
+        assertEquals(List.of(hedgehogId), filmService.searchFilms("ЕЖИК", 10).stream().map(Film::getId).toList());
+        assertEquals(List.of(hedgehogId, fogId), filmService.searchFilms("ёжик, туман!", 10).stream()
+                .map(Film::getId).toList());
+
+        Film renamed = filmService.findPage(otherId - 1, 1).get(0).copy();
+        renamed.setName("Туман над Солярисом");
+        filmService.updateFilm(renamed);
+
+        assertEquals(List.of(otherId), filmService.searchFilms("солярисом", 10).stream().map(Film::getId).toList());
+        assertEquals(List.of(), filmService.searchFilms("солярис", 10));
+        assertEquals(3, filmService.searchFilms("туман", 10).size());
+        assertThrows(ValidationException.class, () -> filmService.searchFilms(" ,. ", 10));
+    }
+
+    @Test
+    void shouldKeepReturnedFilmsUnchangedByLaterWrites() {
+        User user = new User();
+        user.setLogin("login");
+        user.setEmail("user@mail.ru");
+        userService.addUser(user);
+        Film film = new Film();
+        film.setName("film");
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        int filmId = filmService.addFilm(film).getId();
+
+        Film popular = filmService.getPopularFilms(1).get(0);
+        Film listed = filmService.findAll().get(0);
+        filmService.addLike(filmId, user.getId());
+
+        assertEquals(0, popular.getLikesCount());
+        assertTrue(popular.getLikeScore().isEmpty());
+        assertEquals(0, listed.getLikesCount());
+        assertEquals(1, filmService.getPopularFilms(1).get(0).getLikesCount());
+        assertEquals(List.of(user.getId()), filmService.findPage(0, 1).get(0).getLikeScore().stream().boxed().toList());
+    }
+
+    @Test
+    void shouldShareLikeSetsBetweenVersionsUntilLikesChange() {
+        User first = new User();
+        first.setLogin("first");
+        first.setEmail("first@mail.ru");
+        userService.addUser(first);
+        User second = new User();
+        second.setLogin("second");
+        second.setEmail("second@mail.ru");
+        userService.addUser(second);
+        Film film = new Film();
+        film.setName("film");
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        int filmId = filmService.addFilm(film).getId();
+        filmService.addLike(filmId, first.getId());
+
+        Film liked = filmService.findAll().get(0);
+        filmService.patchFilm(filmId, new FilmPatch("renamed", null, null, null));
+        Film renamed = filmService.findAll().get(0);
+        filmService.addLike(filmId, second.getId());
+        Film likedTwice = filmService.findAll().get(0);
+
+        assertEquals("renamed", renamed.getName());
+        assertSame(liked.getLikeScore(), renamed.getLikeScore());
+        assertEquals(List.of(first.getId()), liked.getLikeScore().stream().boxed().toList());
+        assertEquals(2, likedTwice.getLikeScore().size());
+    }
+
+    @Test
+    void shouldKeepLikesOnUpdateAndPatchOnlyChangedFields() {
+        User user = new User();
+        user.setLogin("login");
+        user.setEmail("user@mail.ru");
+        userService.addUser(user);
+        Film film = new Film();
+        film.setName("Солярис");
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(1972, 3, 20));
+        film.setDuration(160);
+        int filmId = filmService.addFilm(film).getId();
+        filmService.addLike(filmId, user.getId());
+
+        Film update = new Film();
+        update.setId(filmId);
+        update.setName("Солярис");
+        update.setDescription("новое описание");
+        update.setReleaseDate(LocalDate.of(1972, 3, 20));
+        update.setDuration(167);
+        assertEquals(1, filmService.updateFilm(update).getLikesCount());
+
+        assertEquals(new FilmPatch("Сталкер", null, null, null),
+                filmService.patchFilm(filmId, new FilmPatch("Сталкер", "новое описание", null, 167)));
+        assertTrue(filmService.patchFilm(filmId, new FilmPatch(null, null, null, 167)).isEmpty());
+        assertThrows(ValidationException.class, () -> filmService.patchFilm(filmId, new FilmPatch("", null, null, null)));
+
+        Film stored = filmService.findPage(0, 1).get(0);
+        assertEquals("Сталкер", stored.getName());
+        assertEquals(167, stored.getDuration());
+        assertEquals(1, stored.getLikesCount());
+        assertEquals(1, stored.getLikeScore().size());
+        assertEquals(List.of(filmId), filmService.searchFilms("сталкер", 10).stream().map(Film::getId).toList());
+        assertEquals(List.of(), filmService.searchFilms("солярис", 10));
+    }
+
+    @Test
+    void shouldApplyQueuedLikesFromSingleWriter() throws Exception {
+        User user = new User();
+        user.setLogin("login");
+        user.setEmail("user@mail.ru");
+        userService.addUser(user);
+        Film film = new Film();
+        film.setName("film");
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        filmService.addFilm(film);
+
+        try (LikeIngestionQueue queue = new LikeIngestionQueue(filmService::applyLikeEvents, 16, 4)) {
+            for (int i = 0; i < 10; i++) {
+                queue.submit(List.of(new LikeEvent(1, 1, i % 2 == 0 ? LikeEvent.Op.LIKE : LikeEvent.Op.UNLIKE)));
+            }
+            queue.submit(List.of(new LikeEvent(1, 1, LikeEvent.Op.LIKE)));
+            queue.flush();
+        }
+
+        assertEquals(1, filmService.getPopularFilms(1).get(0).getLikesCount());
+    }
+
+    @Test
+    void shouldRejectQueuedBatchWithMissingOperation() {
+        LikeEvent like = new LikeEvent(1, 1, LikeEvent.Op.LIKE);
+
+        assertThrows(ValidationException.class,
+                () -> filmService.checkQueuedLikeBatch(Arrays.asList(like, null)));
+        assertThrows(ValidationException.class,
+                () -> filmService.checkQueuedLikeBatch(List.of(like, new LikeEvent(1, 2, null))));
+        filmService.checkQueuedLikeBatch(List.of(like));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.service.FilmTextIndex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilmTextIndexTest {
+
+    @Test
+    void shouldSplitLatinAndCyrillicWordsAndFoldCase() {
+        assertEquals(List.of("елки", "2", "новые", "приключения", "r2d2"),
+                FilmTextIndex.tokens("Ёлки-2: НОВЫЕ приключения (R2D2)"));
+    }
+
+    @Test
+    void shouldReturnSamePrefixAsExhaustiveRankingAfterUpdates() {
+        Random random = new Random(5);
+        String[] words = new String[300];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = "слово" + i;
+        }
+        FilmTextIndex index = new FilmTextIndex();
+        Film[] films = new Film[3000];
+        for (int id = 1; id < films.length; id++) {
+            films[id] = film(id, random, words);
+            index.add(films[id]);
+        }
+        for (int i = 0; i < 300; i++) {
+            int id = random.nextInt(films.length - 1) + 1;
+            index.remove(films[id]);
+            films[id] = film(id, random, words);
+            index.add(films[id]);
+        }
+
+        for (String query : new String[]{"слово0", "слово0 слово1", "слово3 слово40 слово250", "слово299"}) {
+            int[] all = index.search(query, films.length);
+            for (int count : new int[]{1, 10, 100}) {
+                assertArrayEquals(Arrays.copyOf(all, Math.min(count, all.length)), index.search(query, count));
+            }
+        }
+    }
+
+    private static Film film(int id, Random random, String[] words) {
+        Film film = new Film();
+        film.setId(id);
+        film.setName(phrase(random, words, 1 + random.nextInt(3)));
+        film.setDescription(phrase(random, words, random.nextInt(30)));
+        return film;
+    }
+
+    private static String phrase(Random random, String[] words, int length) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            phrase.append(words[(int) Math.pow(words.length, random.nextDouble()) - 1]).append(' ');
+        }
+        return phrase.toString();
+    }
+}
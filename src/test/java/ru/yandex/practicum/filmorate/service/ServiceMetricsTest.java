@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServiceMetricsTest {
+
+    @Autowired
+    FilmService filmService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void shouldTimeServiceCallsAndCountEntities() {
+        Film film = new Film();
+        film.setName("name");
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        filmService.addFilm(film);
+
+        assertEquals(1, meterRegistry.get("filmorate.service").tag("method", "addFilm").timer().count());
+        assertEquals(filmService.filmCount(), meterRegistry.get("filmorate.films").gauge().value());
+    }
+
+    @Test
+    void shouldCountErrorsByExceptionType() throws Exception {
+        mockMvc.perform(get("/films/popular").param("count", "0")).andExpect(status().isBadRequest());
+
+        assertEquals(1, meterRegistry.get("filmorate.errors")
+                .tag("exception", "ValidationException")
+                .counter().count());
+    }
+}
@@ -0,0 +1,118 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.storage.service.StripedLocks;
+import ru.yandex.practicum.filmorate.storage.service.TrendingIndex;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingIndexTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-05-01T10:15:00Z"));
+    private final TrendingIndex trending = new TrendingIndex(new StripedLocks(4), clock);
+
+    @Test
+    void shouldDropLikesLeavingEachWindow() {
+        like(1, 1);
+        like(1, 2);
+        clock.advance(Duration.ofHours(20));
+        like(2, 1);
+
+        assertEquals(List.of(1, 2), trending.top(TrendingIndex.Window.DAY, 10));
+
+        clock.advance(Duration.ofHours(5));
+        trending.advance();
+        assertEquals(List.of(2), trending.top(TrendingIndex.Window.DAY, 10));
+        assertEquals(List.of(1, 2), trending.top(TrendingIndex.Window.WEEK, 10));
+
+        clock.advance(Duration.ofDays(6).plusHours(15));
+        trending.advance();
+        assertEquals(List.of(), trending.top(TrendingIndex.Window.DAY, 10));
+        assertEquals(List.of(2), trending.top(TrendingIndex.Window.WEEK, 10));
+
+        clock.advance(Duration.ofDays(30));
+        trending.advance();
+        assertEquals(List.of(), trending.top(TrendingIndex.Window.WEEK, 10));
+        assertEquals(0, trending.trackedFilms());
+    }
+
+    @Test
+    void shouldRemoveUnlikeFromBucketOfOriginalLike() {
+        like(1, 1);
+        clock.advance(Duration.ofHours(30));
+        like(1, 2);
+        like(2, 1);
+        like(2, 3);
+
+        trending.advance();
+        trending.recordUnlike(1, 1);
+        trending.recordUnlike(2, 3);
+
+        assertEquals(List.of(1, 2), trending.top(TrendingIndex.Window.DAY, 10));
+        assertEquals(List.of(1, 2), trending.top(TrendingIndex.Window.WEEK, 10));
+    }
+
+    @Test
+    void shouldCountUnlikesOfUntrackedUsersOnceTrackingIsFull() {
+        int likers = TrendingIndex.MAX_TRACKED_LIKES + 2;
+        for (int userId = 1; userId <= likers; userId++) {
+            like(1, userId);
+        }
+        for (int userId = 1; userId < likers; userId++) {
+            like(2, userId);
+        }
+        assertEquals(List.of(1, 2), trending.top(TrendingIndex.Window.WEEK, 10));
+
+        trending.recordUnlike(1, likers);
+        trending.recordUnlike(1, likers - 1);
+
+        assertEquals(List.of(2, 1), trending.top(TrendingIndex.Window.WEEK, 10));
+        assertEquals(List.of(2, 1), trending.top(TrendingIndex.Window.DAY, 10));
+    }
+
+    @Test
+    void shouldRejectUnknownWindow() {
+        assertEquals(TrendingIndex.Window.WEEK, TrendingIndex.Window.parse("7d"));
+        assertThrows(ValidationException.class, () -> TrendingIndex.Window.parse("1y"));
+    }
+
+    private void like(int filmId, int userId) {
+        trending.advance();
+        trending.recordLike(filmId, userId);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,24 +1,30 @@
 package ru.yandex.practicum.filmorate.service;
 
 import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
 import ru.yandex.practicum.filmorate.exception.ValidationException;
 import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserPatch;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
 import ru.yandex.practicum.filmorate.storage.service.UserService;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class UserServiceTest {
 
-    UserService userService = new UserService();
+    UserService userService = new UserService(MutationJournal.NOOP);
 
     @Test
     void shouldThrowExceptionIfEmailIsBlank() {
         User user = new User();
         user.setLogin("login");
         user.setEmail("");
-        user.setBirthday("1900-12-12");
+        user.setBirthday(LocalDate.of(1900, 12, 12));
         user.setName("name");
 
         assertThrows(ValidationException.class, () -> {
@@ -31,7 +37,7 @@ class UserServiceTest {
         User user = new User();
         user.setLogin("login");
         user.setEmail("botbotkarta.ru");
-        user.setBirthday("1900-12-12");
+        user.setBirthday(LocalDate.of(1900, 12, 12));
         user.setName("name");
 
         assertThrows(ValidationException.class, () -> {
@@ -44,7 +50,7 @@ class UserServiceTest {
         User user = new User();
         user.setLogin("");
         user.setEmail("botbot@karta.ru");
-        user.setBirthday("1900-12-12");
+        user.setBirthday(LocalDate.of(1900, 12, 12));
         user.setName("name");
 
         assertThrows(ValidationException.class, () -> {
@@ -57,7 +63,7 @@ class UserServiceTest {
         User user = new User();
         user.setLogin("login log");
         user.setEmail("botbot@karta.ru");
-        user.setBirthday("1900-12-12");
+        user.setBirthday(LocalDate.of(1900, 12, 12));
         user.setName("name");
 
         assertThrows(ValidationException.class, () -> {
@@ -70,11 +76,114 @@ class UserServiceTest {
         User user = new User();
         user.setLogin("login");
         user.setEmail("botbot@karta.ru");
-        user.setBirthday(LocalDate.now().plusDays(1).toString());
+        user.setBirthday(LocalDate.now().plusDays(1));
         user.setName("name");
 
         assertThrows(ValidationException.class, () -> {
             userService.addUser(user);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReturnOnlyMutualFriends() {
+        for (int i = 0; i < 5; i++) {
+            User user = new User();
+            user.setLogin("login" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.addUser(user);
+        }
+        userService.addFriend(1, 3);
+        userService.addFriend(1, 4);
+        userService.addFriend(2, 4);
+        userService.addFriend(2, 5);
+
+        Set<Integer> mutualIds = userService.findAllMutualFriends(1, 2).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of(4), mutualIds);
+        assertTrue(userService.findAllMutualFriends(3, 5).isEmpty());
+    }
+
+    @Test
+    void shouldRefreshCachedFriendsAfterChanges() {
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setLogin("login" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.addUser(user);
+        }
+        userService.addFriend(1, 2);
+        assertEquals(1, userService.findAllFriends(1).size());
+
+        userService.addFriend(1, 3);
+        assertEquals(2, userService.findAllFriends(1).size());
+
+        User renamed = new User();
+        renamed.setId(2);
+        renamed.setLogin("renamed");
+        renamed.setEmail("renamed@mail.ru");
+        userService.updateUser(renamed);
+        assertTrue(userService.findAllFriends(1).stream().anyMatch(friend -> "renamed".equals(friend.getLogin())));
+        assertEquals(0, userService.friendsCacheStats().hits());
+
+        userService.findAllFriends(1);
+        assertEquals(1, userService.friendsCacheStats().hits());
+    }
+
+    @Test
+    void shouldKeepFriendsOnUpdateAndPatchOnlyChangedFields() {
+        for (int i = 0; i < 2; i++) {
+            User user = new User();
+            user.setLogin("login" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.addUser(user);
+        }
+        userService.addFriend(1, 2);
+        assertEquals(1, userService.findAllFriends(1).size());
+
+        User update = new User();
+        update.setId(2);
+        update.setLogin("updated");
+        update.setEmail("updated@mail.ru");
+        assertEquals(Set.of(1), userService.updateUser(update).getFriendsList().stream().boxed()
+                .collect(Collectors.toSet()));
+
+        assertEquals(new UserPatch(null, "patched", null, null),
+                userService.patchUser(2, new UserPatch("updated@mail.ru", "patched", null, null)));
+        assertThrows(ValidationException.class, () -> userService.patchUser(2, new UserPatch("mail", null, null, null)));
+        assertThrows(ValidationException.class, () -> userService.patchUser(2,
+                new UserPatch(null, null, null, LocalDate.now().plusDays(1))));
+
+        User friend = userService.findAllFriends(1).iterator().next();
+        assertEquals("patched", friend.getLogin());
+        assertEquals("updated@mail.ru", friend.getEmail());
+        assertEquals(1, friend.getFriendsList().size());
+        assertEquals(1, userService.findAllFriends(2).size());
+    }
+
+    @Test
+    void shouldSuggestFriendsOfFriendsBySharedFriends() {
+        for (int i = 0; i < 6; i++) {
+            User user = new User();
+            user.setLogin("login" + i);
+            user.setEmail("user" + i + "@mail.ru");
+            userService.addUser(user);
+        }
+        userService.addFriend(1, 2);
+        userService.addFriend(1, 3);
+        userService.addFriend(2, 4);
+        userService.addFriend(3, 4);
+        userService.addFriend(2, 5);
+        userService.addFriend(2, 3);
+
+        assertEquals(List.of(4, 5), userService.getSuggestions(1, 10).stream().map(User::getId).toList());
+
+        userService.addFriend(1, 4);
+        assertEquals(List.of(5), userService.getSuggestions(1, 10).stream().map(User::getId).toList());
+        assertEquals(List.of(5),
+                userService.getSuggestions(1, Integer.MAX_VALUE).stream().map(User::getId).toList());
+        assertThrows(ConditionsNotMetException.class, () -> userService.getSuggestions(100, 10));
+        assertThrows(ValidationException.class, () -> userService.getSuggestions(1, 0));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImporterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final UserService userService = new UserService(MutationJournal.NOOP);
+    private final FilmService filmService = new FilmService(userService, MutationJournal.NOOP);
+
+    @Test
+    void shouldReportBadLinesAndImportTheRest() {
+        ImportReport report = BulkImporter.importLines(ndjson("""
+                {"name":"film1","description":"d","releaseDate":"2000-01-01","duration":90}
+                {"name":"film2","description":"d","releaseDate":"1800-01-01","duration":90}
+                {"name":
+
+                {"name":"film3","description":"d","releaseDate":"2000-01-01","duration":90}
+                """), objectMapper, Film.class, filmService::addFilms);
+
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(List.of(2L, 3L), report.getErrors().stream().map(ImportReport.LineError::line).toList());
+        assertEquals(List.of(1, 2), filmService.findPage(0, 10).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    void shouldImportLikesAcrossBatches() {
+        User user = new User();
+        user.setLogin("login");
+        user.setEmail("user@mail.ru");
+        userService.addUser(user);
+        Film film = new Film();
+        film.setName("film");
+        film.setDescription("d");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        filmService.addFilm(film);
+
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < BulkImporter.BATCH_SIZE + 1; i++) {
+            lines.append("{\"filmId\":1,\"userId\":1}\n");
+        }
+        lines.append("{\"filmId\":1,\"userId\":7}\n");
+        ImportReport report = BulkImporter.importLines(ndjson(lines.toString()), objectMapper, Like.class,
+                filmService::addLikes);
+
+        assertEquals(BulkImporter.BATCH_SIZE + 1, report.getImported());
+        assertEquals(BulkImporter.BATCH_SIZE + 2, report.getErrors().get(0).line());
+        assertEquals(1, filmService.getPopularFilms(1).get(0).getLikesCount());
+    }
+
+    @Test
+    void shouldReportNullLinesInsteadOfFailingBatch() {
+        ImportReport report = BulkImporter.importLines(ndjson("""
+                null
+                {"filmId":1,"userId":1}
+                """), objectMapper, Like.class, filmService::addLikes);
+
+        assertEquals(0, report.getImported());
+        assertEquals(List.of(1L, 2L), report.getErrors().stream().map(ImportReport.LineError::line).toList());
+    }
+
+    @Test
+    void shouldKeepEarliestErrorsWhenLaterOnesArriveFirst() {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 150; i++) {
+            lines.append("{\"filmId\":1,\"userId\":1}\n");
+        }
+        for (int i = 0; i < 50; i++) {
+            lines.append("{\"filmId\":\n");
+        }
+        ImportReport report = BulkImporter.importLines(ndjson(lines.toString()), objectMapper, Like.class,
+                filmService::addLikes);
+
+        assertEquals(200, report.getFailed());
+        assertEquals(LongStream.rangeClosed(1, 100).boxed().toList(),
+                report.getErrors().stream().map(ImportReport.LineError::line).toList());
+    }
+
+    private static ByteArrayInputStream ndjson(String lines) {
+        return new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8));
+    }
+}
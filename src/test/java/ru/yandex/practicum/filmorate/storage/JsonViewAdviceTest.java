@@ -0,0 +1,83 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class JsonViewAdviceTest {
+
+    @Autowired
+    FilmService filmService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void shouldServeLeanViewsAndPagedIdSets() throws Exception {
+        int[] userIds = new int[3];
+        for (int i = 0; i < userIds.length; i++) {
+            User user = new User();
+            user.setLogin("viewer" + i);
+            user.setEmail("viewer" + i + "@mail.ru");
+            userIds[i] = userService.addUser(user).getId();
+        }
+        userService.addFriend(userIds[0], userIds[1]);
+        userService.addFriend(userIds[0], userIds[2]);
+        Film film = new Film();
+        film.setName("lean");
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        int filmId = filmService.addFilm(film).getId();
+        for (int userId : userIds) {
+            filmService.addLike(filmId, userId);
+        }
+
+        mockMvc.perform(get("/films/search").param("q", "lean").param("view", "lean"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].likesCount").value(3))
+                .andExpect(jsonPath("$[0].likeScore").doesNotExist());
+        mockMvc.perform(get("/films/search").param("q", "lean"))
+                .andExpect(jsonPath("$[0].likeScore.length()").value(3));
+        mockMvc.perform(get("/users/" + userIds[1] + "/friends").param("view", "lean"))
+                .andExpect(jsonPath("$[0].friendsCount").value(2))
+                .andExpect(jsonPath("$[0].friendsList").doesNotExist());
+        mockMvc.perform(get("/films/" + filmId + "/likes").param("after", String.valueOf(userIds[0]))
+                        .param("limit", "1"))
+                .andExpect(content().json("[" + userIds[1] + "]"));
+        mockMvc.perform(get("/users/" + userIds[0] + "/friends/ids"))
+                .andExpect(content().json("[" + userIds[1] + "," + userIds[2] + "]"));
+        mockMvc.perform(get("/films/popular").param("view", "compact"))
+                .andExpect(status().isBadRequest());
+        int films = filmService.findAll().size();
+        mockMvc.perform(post("/films").param("view", "compact").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"rejected\",\"description\":\"d\",\"releaseDate\":\"2000-01-01\","
+                                + "\"duration\":90}"))
+                .andExpect(status().isBadRequest());
+        assertEquals(films, filmService.findAll().size());
+        mockMvc.perform(get("/films/" + filmId + "/likes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
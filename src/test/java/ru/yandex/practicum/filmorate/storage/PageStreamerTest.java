@@ -0,0 +1,92 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.Views;
+import ru.yandex.practicum.filmorate.storage.journal.MutationJournal;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageStreamerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final FilmService filmService = new FilmService(new UserService(MutationJournal.NOOP),
+            MutationJournal.NOOP);
+
+    @Test
+    void shouldPageFilmsByIdAfterCursor() {
+        addFilms(25);
+
+        List<Integer> ids = new ArrayList<>();
+        int cursor = 0;
+        List<Film> page = filmService.findPage(cursor, 10);
+        while (!page.isEmpty()) {
+            page.forEach(film -> ids.add(film.getId()));
+            cursor = page.get(page.size() - 1).getId();
+            page = filmService.findPage(cursor, 10);
+        }
+
+        assertEquals(IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()), ids);
+    }
+
+    @Test
+    void shouldStreamAllFilmsAcrossPages() throws IOException {
+        addFilms(600);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PageStreamer.array(MediaType.APPLICATION_JSON, objectMapper.writerFor(Film.class), 100, filmService::findPage,
+                Film::getId).getBody().writeTo(out);
+
+        JsonNode films = objectMapper.readTree(out.toByteArray());
+        assertEquals(500, films.size());
+        assertEquals(101, films.get(0).get("id").asInt());
+        assertEquals(600, films.get(499).get("id").asInt());
+    }
+
+    @Test
+    void shouldStreamLeanViewWithoutLikes() throws IOException {
+        addFilms(3);
+        filmService.addLikes(List.of(), (message, index) -> {
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PageStreamer.array(MediaType.APPLICATION_JSON, Views.writer(objectMapper, Film.class, Views.LEAN), 0,
+                filmService::findPage, Film::getId).getBody().writeTo(out);
+
+        JsonNode films = objectMapper.readTree(out.toByteArray());
+        assertEquals(3, films.size());
+        assertEquals(0, films.get(0).get("likesCount").asInt());
+        assertFalse(films.get(0).has("likeScore"));
+        assertThrows(ValidationException.class, () -> Views.writer(objectMapper, Film.class, "compact"));
+    }
+
+    @Test
+    void shouldRejectTooLargeLimit() {
+        assertThrows(ValidationException.class, () -> PageStreamer.checkPage(0, PageStreamer.MAX_PAGE_SIZE + 1));
+    }
+
+    private void addFilms(int count) {
+        for (int i = 0; i < count; i++) {
+            Film film = new Film();
+            film.setName("film" + i);
+            film.setDescription("description");
+            film.setReleaseDate(LocalDate.of(2000, 1, 1));
+            film.setDuration(90);
+            filmService.addFilm(film);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class WireFormatsTest {
+    private final ObjectMapper cbor = CBORMapper.builder().addModule(new JavaTimeModule()).build();
+    private final ObjectMapper smile = SmileMapper.builder().addModule(new JavaTimeModule()).build();
+
+    @Autowired
+    WireFormats wireFormats;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void shouldNegotiateFormatWithJsonByDefault() {
+        assertEquals(MediaType.APPLICATION_JSON, wireFormats.negotiate(null));
+        assertEquals(MediaType.APPLICATION_JSON, wireFormats.negotiate("*/*"));
+        assertEquals(MediaType.APPLICATION_JSON, wireFormats.negotiate("text/html"));
+        assertEquals(MediaType.APPLICATION_CBOR, wireFormats.negotiate("application/cbor"));
+        assertEquals(WireFormats.APPLICATION_SMILE,
+                wireFormats.negotiate("application/json;q=0.5, application/x-jackson-smile"));
+        assertTrue(WireFormats.isBinary("application/cbor"));
+        assertFalse(WireFormats.isBinary("application/*"));
+    }
+
+    @Test
+    void shouldReadAndWriteBinaryFormats() throws Exception {
+        Film film = new Film();
+        film.setName("binary");
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        film.setDuration(90);
+
+        byte[] created = mockMvc.perform(post("/films")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cbor.writeValueAsBytes(film)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Film saved = cbor.readValue(created, Film.class);
+        assertEquals("binary", saved.getName());
+        assertEquals(LocalDate.of(2000, 10, 10), saved.getReleaseDate());
+
+        byte[] popular = mockMvc.perform(get("/films/popular").accept(WireFormats.APPLICATION_SMILE))
+                .andExpect(content().contentType(WireFormats.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(saved.getId(), smile.readValue(popular, Film[].class)[0].getId());
+
+        MvcResult streamed = mockMvc.perform(get("/films").accept(MediaType.APPLICATION_CBOR)).andReturn();
+        byte[] all = mockMvc.perform(asyncDispatch(streamed))
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("binary", cbor.readValue(all, Film[].class)[0].getName());
+
+        mockMvc.perform(get("/films/popular"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,265 @@
+package ru.yandex.practicum.filmorate.storage.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.yandex.practicum.filmorate.exception.ConditionsNotMetException;
+import ru.yandex.practicum.filmorate.exception.ValidationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmFilter;
+import ru.yandex.practicum.filmorate.model.FilmPatch;
+import ru.yandex.practicum.filmorate.model.ImportReport;
+import ru.yandex.practicum.filmorate.model.Like;
+import ru.yandex.practicum.filmorate.model.LikeEvent;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserPatch;
+import ru.yandex.practicum.filmorate.storage.film.JdbcFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.JdbcUserStorage;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:filmorate;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("jdbc")
+@Transactional
+class JdbcStorageTest {
+
+    @Autowired
+    JdbcUserStorage userStorage;
+
+    @Autowired
+    JdbcFilmStorage filmStorage;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldReturnMutualFriends() {
+        int first = userStorage.addUser(user(1)).getId();
+        int second = userStorage.addUser(user(2)).getId();
+        int common = userStorage.addUser(user(3)).getId();
+        int other = userStorage.addUser(user(4)).getId();
+
+        userStorage.addFriend(first, common);
+        userStorage.addFriend(second, common);
+        userStorage.addFriend(first, other);
+
+        assertEquals(List.of(common), userStorage.findAllMutualFriends(first, second).stream()
+                .map(User::getId).toList());
+        assertTrue(userStorage.findAllFriends(common).stream().anyMatch(friend -> friend.getId() == first));
+    }
+
+    @Test
+    void shouldOrderPopularFilmsByLikes() {
+        int userA = userStorage.addUser(user(1)).getId();
+        int userB = userStorage.addUser(user(2)).getId();
+        int quiet = filmStorage.addFilm(film(1)).getId();
+        int liked = filmStorage.addFilm(film(2)).getId();
+
+        filmStorage.addLikes(List.of(new Like(liked, userA), new Like(liked, userB), new Like(liked, userA)));
+        filmStorage.addLike(quiet, userA);
+
+        List<Film> popular = filmStorage.getPopularFilms(10, FilmFilter.NONE);
+        assertEquals(List.of(liked, quiet), popular.stream().map(Film::getId).toList());
+        assertEquals(2, popular.get(0).getLikesCount());
+    }
+
+    @Test
+    void shouldRejectLikeFromUnknownUser() {
+        int filmId = filmStorage.addFilm(film(1)).getId();
+
+        assertThrows(ConditionsNotMetException.class, () -> filmStorage.addLike(filmId, 999));
+    }
+
+    @Test
+    void shouldImportLikesAndReportUnknownFilm() {
+        int userId = userStorage.addUser(user(1)).getId();
+        int filmId = filmStorage.addFilm(film(1)).getId();
+        String lines = "{\"filmId\":" + filmId + ",\"userId\":" + userId + "}\n"
+                + "{\"filmId\":" + (filmId + 100) + ",\"userId\":" + userId + "}\n";
+
+        ImportReport report = filmStorage.importLikes(
+                new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getErrors().get(0).line());
+        assertEquals(1, filmStorage.getPopularFilms(1, FilmFilter.NONE).get(0).getLikesCount());
+    }
+
+    @Test
+    void shouldReportOverlongFieldsPerLineOnImport() {
+        String lines = "{\"email\":\"a@mail.ru\",\"login\":\"first\"}\n"
+                + "{\"email\":\"b@mail.ru\",\"login\":\"" + "x".repeat(256) + "\"}\n"
+                + "{\"email\":\"c@mail.ru\",\"login\":\"third\",\"name\":\"" + "я".repeat(256) + "\"}\n"
+                + "{\"email\":\"d@mail.ru\",\"login\":\"fourth\"}\n";
+
+        ImportReport report = userStorage.importUsers(
+                new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(2L, 3L), report.getErrors().stream().map(ImportReport.LineError::line).toList());
+        Film film = film(1);
+        film.setName("n".repeat(256));
+        assertThrows(ValidationException.class, () -> filmStorage.addFilm(film));
+    }
+
+    @Test
+    void shouldRecommendFilmsOfMostSimilarUser() {
+        int me = userStorage.addUser(user(1)).getId();
+        int twin = userStorage.addUser(user(2)).getId();
+        int stranger = userStorage.addUser(user(3)).getId();
+        int shared = filmStorage.addFilm(film(1)).getId();
+        int twinOnly = filmStorage.addFilm(film(2)).getId();
+        int strangerOnly = filmStorage.addFilm(film(3)).getId();
+
+        filmStorage.addLikes(List.of(new Like(shared, me), new Like(shared, twin), new Like(twinOnly, twin),
+                new Like(strangerOnly, stranger)));
+
+        assertEquals(List.of(twinOnly), userStorage.getRecommendations(me, 10).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    void shouldApplyLatestLikeEventPerPair() {
+        int userA = userStorage.addUser(user(1)).getId();
+        int userB = userStorage.addUser(user(2)).getId();
+        int filmId = filmStorage.addFilm(film(1)).getId();
+
+        ImportReport report = filmStorage.applyLikeEvents(List.of(
+                new LikeEvent(filmId, userA, LikeEvent.Op.LIKE),
+                new LikeEvent(filmId, userB, LikeEvent.Op.LIKE),
+                new LikeEvent(filmId, userB, LikeEvent.Op.UNLIKE),
+                new LikeEvent(filmId + 100, userA, LikeEvent.Op.LIKE)));
+
+        assertEquals(3, report.getImported());
+        assertEquals(4, report.getErrors().get(0).line());
+        assertEquals(List.of(userA), filmStorage.getPopularFilms(1, FilmFilter.NONE).get(0).getLikeScore().stream().boxed().toList());
+    }
+
+    @Test
+    void shouldCountOnlyLikesInsideTrendingWindow() {
+        int userA = userStorage.addUser(user(1)).getId();
+        int userB = userStorage.addUser(user(2)).getId();
+        int oldFavourite = filmStorage.addFilm(film(1)).getId();
+        int fresh = filmStorage.addFilm(film(2)).getId();
+
+        filmStorage.addLike(oldFavourite, userA);
+        filmStorage.addLike(oldFavourite, userB);
+        filmStorage.addLike(fresh, userA);
+        jdbcTemplate.update("UPDATE likes SET liked_at = DATEADD('DAY', -3, LOCALTIMESTAMP) WHERE film_id = ?",
+                oldFavourite);
+
+        assertEquals(List.of(fresh), filmStorage.getTrendingFilms(10, "24h").stream().map(Film::getId).toList());
+        assertEquals(List.of(oldFavourite, fresh), filmStorage.getTrendingFilms(10, "7d").stream()
+                .map(Film::getId).toList());
+    }
+
+    @Test
+    void shouldFilterFilmsByReleaseDurationAndNamePrefix() {
+        int user = userStorage.addUser(user(1)).getId();
+        Film alien = film(1);
+        alien.setName("Alien");
+        alien.setReleaseDate(LocalDate.of(1979, 5, 25));
+        alien.setDuration(117);
+        Film aliens = film(2);
+        aliens.setName("Aliens");
+        aliens.setReleaseDate(LocalDate.of(1986, 7, 18));
+        aliens.setDuration(137);
+        Film percent = film(3);
+        percent.setName("100% Alien");
+        percent.setReleaseDate(LocalDate.of(1986, 1, 1));
+        percent.setDuration(90);
+        int alienId = filmStorage.addFilm(alien).getId();
+        int aliensId = filmStorage.addFilm(aliens).getId();
+        int percentId = filmStorage.addFilm(percent).getId();
+        filmStorage.addLike(aliensId, user);
+
+        assertEquals(List.of(alienId, aliensId), filmStorage.findFilms(0, 10,
+                new FilmFilter(null, null, null, null, "ALI")).stream().map(Film::getId).toList());
+        assertEquals(List.of(percentId), filmStorage.findFilms(0, 10,
+                new FilmFilter(null, null, null, null, "100%")).stream().map(Film::getId).toList());
+        assertEquals(List.of(aliensId, percentId), filmStorage.getPopularFilms(10,
+                new FilmFilter(LocalDate.of(1986, 1, 1), null, null, null, null)).stream()
+                .map(Film::getId).toList());
+        assertEquals(List.of(alienId), filmStorage.findFilms(0, 10,
+                new FilmFilter(null, LocalDate.of(1985, 1, 1), 100, 120, null)).stream().map(Film::getId).toList());
+    }
+
+    @Test
+    void shouldSearchNamesBeforeDescriptions() {
+        Film inName = film(1);
+        inName.setName("Сталкер");
+        inName.setDescription("Зона");
+        Film inDescription = film(2);
+        inDescription.setName("Пикник");
+        inDescription.setDescription("Повесть, по которой снят «Сталкер»");
+        int inNameId = filmStorage.addFilm(inName).getId();
+        int inDescriptionId = filmStorage.addFilm(inDescription).getId();
+        filmStorage.addFilm(film(3));
+
+        assertEquals(List.of(inNameId, inDescriptionId), filmStorage.searchFilms("СТАЛКЕР", 10).stream()
+                .map(Film::getId).toList());
+    }
+
+    @Test
+    void shouldSuggestFriendsOfFriends() {
+        int me = userStorage.addUser(user(1)).getId();
+        int friend = userStorage.addUser(user(2)).getId();
+        int otherFriend = userStorage.addUser(user(3)).getId();
+        int popular = userStorage.addUser(user(4)).getId();
+        int distant = userStorage.addUser(user(5)).getId();
+
+        userStorage.addFriend(me, friend);
+        userStorage.addFriend(me, otherFriend);
+        userStorage.addFriend(friend, popular);
+        userStorage.addFriend(otherFriend, popular);
+        userStorage.addFriend(friend, distant);
+
+        assertEquals(List.of(popular, distant), userStorage.getSuggestions(me, 10).stream()
+                .map(User::getId).toList());
+    }
+
+    @Test
+    void shouldPatchOnlyGivenFieldsAndKeepLikes() {
+        int userId = userStorage.addUser(user(1)).getId();
+        int filmId = filmStorage.addFilm(film(1)).getId();
+        filmStorage.addLike(filmId, userId);
+
+        assertEquals(new FilmPatch(null, null, null, 120),
+                filmStorage.patchFilm(filmId, new FilmPatch("film1", null, null, 120)));
+        assertEquals(new UserPatch(null, null, "renamed", null),
+                userStorage.patchUser(userId, new UserPatch(null, null, "renamed", null)));
+        assertThrows(ValidationException.class, () -> filmStorage.patchFilm(filmId,
+                new FilmPatch(null, null, LocalDate.of(1800, 1, 1), null)));
+
+        Film patched = filmStorage.getPopularFilms(1, FilmFilter.NONE).get(0);
+        assertEquals(120, patched.getDuration());
+        assertEquals("description1", patched.getDescription());
+        assertEquals(1, patched.getLikesCount());
+        assertEquals("renamed", userStorage.findUsers(0, 1).get(0).getName());
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setLogin("login" + i);
+        user.setEmail("user" + i + "@mail.ru");
+        user.setName("name" + i);
+        user.setBirthday(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+
+    private static Film film(int i) {
+        Film film = new Film();
+        film.setName("film" + i);
+        film.setDescription("description" + i);
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(90);
+        return film;
+    }
+}
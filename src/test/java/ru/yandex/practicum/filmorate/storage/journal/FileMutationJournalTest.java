@@ -0,0 +1,252 @@
+package ru.yandex.practicum.filmorate.storage.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmPatch;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserPatch;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileMutationJournalTest {
+    @TempDir
+    Path directory;
+
+    private final List<FileMutationJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() {
+        journals.forEach(FileMutationJournal::close);
+    }
+
+    @Test
+    void shouldRestoreStateFromLog() {
+        Node node = open();
+        fill(node);
+        node.journal.close();
+
+        Node restored = open();
+
+        assertSameState(node, restored);
+        assertEquals(4, restored.users.addUser(user(4)).getId());
+        assertEquals(3, restored.films.addFilm(film(3)).getId());
+    }
+
+    @Test
+    void shouldRestoreStateFromSnapshotAndLogTail() throws Exception {
+        Node node = open();
+        fill(node);
+        node.journal.snapshot();
+        node.films.deleteLike(1, 2);
+        node.users.deleteFriend(1, 3);
+        node.films.addLike(2, 3);
+        node.journal.close();
+
+        Node restored = open();
+
+        assertSameState(node, restored);
+        assertEquals(1, countFiles("snapshot-"));
+        assertArrayEquals(new int[]{1}, findFilm(restored, 1).getLikeScore().toArray());
+        assertArrayEquals(new int[]{2}, restored.users.friendIds(1).toArray());
+    }
+
+    @Test
+    void shouldFallBackToPreviousSnapshotWhenLatestIsCorrupted() throws Exception {
+        Node node = open();
+        fill(node);
+        node.journal.snapshot();
+        node.films.deleteLike(1, 2);
+        node.journal.snapshot();
+        node.users.deleteFriend(1, 3);
+        node.journal.close();
+        corrupt(latestFile("snapshot-"));
+
+        Node restored = open();
+
+        assertSameState(node, restored);
+        assertEquals(2, countFiles("snapshot-"));
+    }
+
+    @Test
+    void shouldFailRecoveryWhenRejectedSnapshotCannotBeRebuilt() throws Exception {
+        Node node = open();
+        fill(node);
+        node.journal.snapshot();
+        node.films.deleteLike(1, 2);
+        node.journal.snapshot();
+        node.users.deleteFriend(1, 3);
+        node.journal.snapshot();
+        node.journal.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path snapshot : files.filter(path -> path.getFileName().toString().startsWith("snapshot-"))
+                    .toList()) {
+                corrupt(snapshot);
+            }
+        }
+
+        FileMutationJournal journal = new FileMutationJournal(directory, Duration.ZERO);
+        journals.add(journal);
+        UserService users = new UserService(journal);
+        FilmService films = new FilmService(users, journal);
+
+        assertThrows(UncheckedIOException.class, () -> journal.recover(new ServiceReplayer(films, users)));
+    }
+
+    @Test
+    void shouldIgnoreTornTailOfLastSegment() throws Exception {
+        Node node = open();
+        fill(node);
+        node.journal.close();
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("journal-"))
+                    .filter(path -> path.toFile().length() > 0)
+                    .max(Path::compareTo)
+                    .orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        Node restored = open();
+
+        assertSameState(node, restored);
+    }
+
+    @Test
+    void shouldRestoreStringsLongerThanModifiedUtfLimit() {
+        Node node = open();
+        User user = user(1);
+        user.setId(1);
+        user.setName("я".repeat(40_000));
+        node.journal.userAdded(user);
+        node.journal.close();
+
+        Node restored = open();
+
+        assertEquals(user.getName(), restored.users.getUsers().get(1).getName());
+    }
+
+    @Test
+    void shouldNotMutateStateWhenJournalRejectsRecord() {
+        Node node = open();
+        fill(node);
+        node.journal.close();
+
+        assertThrows(IllegalStateException.class, () -> node.films.addLike(2, 1));
+        assertThrows(IllegalStateException.class, () -> node.users.addFriend(2, 3));
+
+        assertEquals(0, findFilm(node, 2).getLikesCount());
+        assertTrue(findFilm(node, 2).getLikeScore().isEmpty());
+        assertFalse(node.users.friendIds(2).contains(3));
+    }
+
+    private Node open() {
+        FileMutationJournal journal = new FileMutationJournal(directory, Duration.ZERO);
+        journals.add(journal);
+        UserService users = new UserService(journal);
+        FilmService films = new FilmService(users, journal);
+        journal.recover(new ServiceReplayer(films, users));
+        films.rebuildIndexes();
+        journal.start(sink -> {
+            users.exportUsers(sink::userAdded);
+            films.exportFilms(sink::filmAdded);
+        });
+        return new Node(journal, users, films);
+    }
+
+    private void fill(Node node) {
+        for (int i = 1; i <= 3; i++) {
+            node.users.addUser(user(i));
+        }
+        node.films.addFilm(film(1));
+        node.films.addFilm(film(2));
+        node.films.addLike(1, 1);
+        node.films.addLike(1, 2);
+        node.films.addLike(2, 2);
+        node.films.deleteLike(2, 2);
+        node.users.addFriend(1, 2);
+        node.users.addFriend(1, 3);
+        User updated = user(2);
+        updated.setId(2);
+        updated.setName("updated");
+        node.users.updateUser(updated);
+        node.users.patchUser(3, new UserPatch(null, null, "patched", null));
+        node.films.patchFilm(1, new FilmPatch("patched", null, null, 100));
+    }
+
+    private void assertSameState(Node expected, Node actual) {
+        assertEquals(expected.users.findAllUsers().size(), actual.users.findAllUsers().size());
+        for (User user : expected.users.findAllUsers()) {
+            User restored = actual.users.getUsers().get(user.getId());
+            assertEquals(user, restored);
+            assertEquals(user.getFriendsList(), restored.getFriendsList());
+        }
+        assertEquals(expected.films.findAll().size(), actual.films.findAll().size());
+        for (Film film : expected.films.findAll()) {
+            Film restored = findFilm(actual, film.getId());
+            assertEquals(film, restored);
+            assertEquals(film.getLikeScore(), restored.getLikeScore());
+        }
+        assertEquals(expected.films.getPopularFilms(10), actual.films.getPopularFilms(10));
+    }
+
+    private static Film findFilm(Node node, int filmId) {
+        return node.films.findAll().stream()
+                .filter(candidate -> candidate.getId() == filmId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Path latestFile(String prefix) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .max(Path::compareTo)
+                    .orElseThrow();
+        }
+    }
+
+    private static void corrupt(Path file) throws Exception {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+    }
+
+    private long countFiles(String prefix) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setLogin("login" + i);
+        user.setEmail("user" + i + "@mail.ru");
+        user.setBirthday(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+
+    private static Film film(int i) {
+        Film film = new Film();
+        film.setName("name" + i);
+        film.setDescription("descr" + i);
+        film.setReleaseDate(LocalDate.of(2000, 10, i));
+        film.setDuration(100 + i);
+        return film;
+    }
+
+    private record Node(FileMutationJournal journal, UserService users, FilmService films) {
+    }
+}
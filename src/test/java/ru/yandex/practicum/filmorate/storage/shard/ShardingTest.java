@@ -0,0 +1,274 @@
+package ru.yandex.practicum.filmorate.storage.shard;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserPatch;
+import ru.yandex.practicum.filmorate.storage.journal.FileMutationJournal;
+import ru.yandex.practicum.filmorate.storage.journal.JournalRecovery;
+import ru.yandex.practicum.filmorate.storage.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.service.UserService;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardingTest {
+    private static final int NODES = 3;
+    private static final String SECRET = "shard-test-secret";
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final List<RestClient> clients = new ArrayList<>();
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        int[] ports = freePorts(NODES);
+        String nodes = Arrays.stream(ports).mapToObj(port -> "http://localhost:" + port)
+                .collect(Collectors.joining(","));
+        for (int i = 0; i < NODES; i++) {
+            contexts.add(new SpringApplicationBuilder(FilmorateApplication.class).run(
+                    "--server.port=" + ports[i],
+                    "--filmorate.sharding.enabled=true",
+                    "--filmorate.sharding.nodes=" + nodes,
+                    "--filmorate.sharding.self=" + i,
+                    "--filmorate.sharding.secret=" + SECRET,
+                    "--logging.level.root=WARN"));
+            clients.add(client(ports[i]));
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void shouldKeepEntitiesOnOwningNodesAndAnswerFromAnyNode() {
+        int[] counts = contexts.stream()
+                .mapToInt(context -> context.getBean(UserService.class).userCount())
+                .toArray();
+        int[] users = new int[NODES * 4];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = node(i % NODES).post().uri("/users").body(user(i)).retrieve().body(User.class).getId();
+        }
+        for (int i = 0; i < NODES; i++) {
+            assertEquals(counts[i] + 4, contexts.get(i).getBean(UserService.class).userCount());
+        }
+        int total = Arrays.stream(counts).sum() + users.length;
+        User[] page = node(0).get().uri("/users?limit=1000").retrieve().body(User[].class);
+        assertEquals(total, page.length);
+        assertTrue(Arrays.stream(page).mapToInt(User::getId).boxed().collect(Collectors.toSet())
+                .containsAll(Arrays.stream(users).boxed().toList()));
+        assertEquals(total, node(1).get().uri("/users").retrieve().body(User[].class).length);
+
+        int first = users[0];
+        int second = users[1];
+        int third = users[2];
+        node(2).put().uri("/users/{id}/friends/{friendId}", first, second).retrieve().toBodilessEntity();
+        node(0).put().uri("/users/{id}/friends/{friendId}", third, first).retrieve().toBodilessEntity();
+        node(1).put().uri("/users/{id}/friends/{friendId}", third, second).retrieve().toBodilessEntity();
+        assertEquals(Set.of(first, third), friendIds(node(0).get().uri("/users/{id}/friends", second)));
+        assertEquals(Set.of(second, third), friendIds(node(1).get().uri("/users/{id}/friends", first)));
+        assertEquals(Set.of(third), friendIds(node(2).get().uri("/users/{id}/friends/common/{otherId}",
+                first, second)));
+
+        node(1).delete().uri("/users/{id}/friends/{friendId}", second, first).retrieve().toBodilessEntity();
+        assertEquals(Set.of(third), friendIds(node(2).get().uri("/users/{id}/friends", first)));
+        assertEquals(Set.of(third), friendIds(node(2).get().uri("/users/{id}/friends", second)));
+        HttpClientErrorException missing = assertThrows(HttpClientErrorException.class, () -> node(0).put()
+                .uri("/users/{id}/friends/{friendId}", first, 1_000_000).retrieve().toBodilessEntity());
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+
+        User renamed = user(0);
+        renamed.setId(second);
+        renamed.setName("renamed");
+        node(0).put().uri("/users").body(renamed).retrieve().toBodilessEntity();
+        assertEquals("renamed", contexts.get(1).getBean(UserService.class).findUsers(new int[]{second})
+                .get(0).getName());
+        node(2).patch().uri("/users/{id}", second).body(new UserPatch(null, null, "patched", null))
+                .retrieve().toBodilessEntity();
+        assertEquals("patched", contexts.get(1).getBean(UserService.class).findUsers(new int[]{second})
+                .get(0).getName());
+    }
+
+    @Test
+    void shouldMergePopularFilmsFromAllNodes() {
+        int[] users = new int[NODES];
+        int[] films = new int[NODES];
+        for (int i = 0; i < NODES; i++) {
+            users[i] = node(i).post().uri("/users").body(user(100 + i)).retrieve().body(User.class).getId();
+            films[i] = node(i).post().uri("/films").body(film(i)).retrieve().body(Film.class).getId();
+        }
+        for (int i = 0; i < NODES; i++) {
+            for (int liked = 0; liked <= i; liked++) {
+                node((i + 1) % NODES).put().uri("/films/{id}/like/{userId}", films[i], users[liked])
+                        .retrieve().toBodilessEntity();
+            }
+        }
+        for (ConfigurableApplicationContext context : contexts) {
+            assertEquals(1, context.getBean(FilmService.class).filmCount());
+        }
+
+        Film[] popular = node(0).get().uri("/films/popular?count=2").retrieve().body(Film[].class);
+        assertEquals(List.of(films[2], films[1]), Arrays.stream(popular).map(Film::getId).toList());
+        assertEquals(3, popular[0].getLikesCount());
+    }
+
+    @Test
+    void shouldIgnoreShardHeaderFromExternalClients() {
+        int userId = node(0).post().uri("/users").body(user(400)).retrieve().body(User.class).getId();
+        int stranger = IntStream.range(0, NODES)
+                .filter(i -> !contexts.get(i).getBean(ShardRouter.class).isLocal(userId))
+                .findFirst()
+                .orElseThrow();
+
+        User[] friends = node(stranger).get().uri("/users/{id}/friends", userId)
+                .header(ShardRouter.HEADER, ShardRouter.PEER)
+                .retrieve()
+                .body(User[].class);
+        User[] all = node(stranger).get().uri("/users")
+                .header(ShardRouter.HEADER, ShardRouter.PEER)
+                .header(ShardRouter.TOKEN_HEADER, "guess")
+                .retrieve()
+                .body(User[].class);
+
+        assertEquals(0, friends.length);
+        assertEquals(contexts.stream().mapToInt(context -> context.getBean(UserService.class).userCount()).sum(),
+                all.length);
+    }
+
+    @Test
+    void shouldKeepCrossShardFriendshipAfterRestart(@TempDir Path journals) throws IOException {
+        int[] ports = freePorts(2);
+        String nodes = Arrays.stream(ports).mapToObj(port -> "http://localhost:" + port)
+                .collect(Collectors.joining(","));
+        List<ConfigurableApplicationContext> cluster = new ArrayList<>();
+        try {
+            for (int i = 0; i < ports.length; i++) {
+                cluster.add(startJournaledNode(ports, nodes, i, journals));
+            }
+            RestClient first = client(ports[0]);
+            int local = first.post().uri("/users").body(user(200)).retrieve().body(User.class).getId();
+            int remote = client(ports[1]).post().uri("/users").body(user(201)).retrieve().body(User.class).getId();
+            first.put().uri("/users/{id}/friends/{friendId}", local, remote).retrieve().toBodilessEntity();
+
+            cluster.remove(0).close();
+            cluster.add(0, startJournaledNode(ports, nodes, 0, journals));
+
+            assertEquals(Set.of(remote), friendIds(first.get().uri("/users/{id}/friends", local)));
+            assertEquals(Set.of(local), friendIds(first.get().uri("/users/{id}/friends", remote)));
+        } finally {
+            cluster.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+
+    @Test
+    void shouldAssignShardBeforeReplayingJournal(@TempDir Path directory) {
+        ShardRouter router = new ShardRouter(new ShardingProperties(true,
+                List.of(URI.create("http://localhost:1"), URI.create("http://localhost:2")), 0, 128,
+                Duration.ofSeconds(2), SECRET));
+        int remote = IntStream.iterate(1, id -> id + 1).filter(id -> !router.isLocal(id)).findFirst().orElseThrow();
+
+        RecoveredNode node = recover(router, directory);
+        int local = node.users().addUser(user(300)).getId();
+        node.users().linkFriend(local, remote);
+        node.journal().close();
+
+        RecoveredNode restarted = recover(router, directory);
+        restarted.journal().close();
+
+        assertTrue(router.isLocal(local));
+        assertArrayEquals(new int[]{remote}, restarted.users().friendIds(local).toArray());
+    }
+
+    private static ConfigurableApplicationContext startJournaledNode(int[] ports, String nodes, int self,
+                                                                     Path journals) {
+        return new SpringApplicationBuilder(FilmorateApplication.class).run(
+                "--server.port=" + ports[self],
+                "--filmorate.sharding.enabled=true",
+                "--filmorate.sharding.nodes=" + nodes,
+                "--filmorate.sharding.self=" + self,
+                "--filmorate.sharding.secret=" + SECRET,
+                "--filmorate.journal.enabled=true",
+                "--filmorate.journal.directory=" + journals.resolve("node" + self),
+                "--logging.level.root=WARN");
+    }
+
+    private static RecoveredNode recover(ShardRouter router, Path directory) {
+        FileMutationJournal journal = new FileMutationJournal(directory, Duration.ZERO);
+        UserService users = new UserService(journal);
+        FilmService films = new FilmService(users, journal);
+        ShardCoordinator coordinator = new ShardCoordinator(router, null, users, films);
+        new JournalRecovery(journal, films, users,
+                new StaticListableBeanFactory(Map.of("shardCoordinator", coordinator))
+                        .getBeanProvider(ShardCoordinator.class)).recover();
+        return new RecoveredNode(journal, users);
+    }
+
+    private static int[] freePorts(int count) throws IOException {
+        int[] ports = new int[count];
+        for (int i = 0; i < count; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                ports[i] = socket.getLocalPort();
+            }
+        }
+        return ports;
+    }
+
+    private static RestClient client(int port) {
+        return RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+
+    private static RestClient node(int index) {
+        return clients.get(index);
+    }
+
+    private static Set<Integer> friendIds(RestClient.RequestHeadersSpec<?> request) {
+        return Arrays.stream(request.retrieve().body(User[].class)).map(User::getId).collect(Collectors.toSet());
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setLogin("shard" + i);
+        user.setEmail("shard" + i + "@mail.ru");
+        user.setBirthday(LocalDate.of(1990, 1, 1));
+        return user;
+    }
+
+    private static Film film(int i) {
+        Film film = new Film();
+        film.setName("film" + i);
+        film.setDescription("descr");
+        film.setReleaseDate(LocalDate.of(2000, 1, 1));
+        film.setDuration(90);
+        return film;
+    }
+
+    private record RecoveredNode(FileMutationJournal journal, UserService users) {
+    }
+}
@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+    private static final int KEYS = 100_000;
+
+    @Test
+    void shouldSpreadKeysEvenlyAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(4, 128);
+        int[] counts = new int[4];
+        for (int key = 1; key <= KEYS; key++) {
+            counts[ring.ownerOf(key)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(count > KEYS / 4 * 0.8 && count < KEYS / 4 * 1.2, String.valueOf(count));
+        }
+    }
+
+    @Test
+    void shouldMoveOnlyKeysTakenByAddedNode() {
+        ConsistentHashRing before = new ConsistentHashRing(4, 128);
+        ConsistentHashRing after = new ConsistentHashRing(5, 128);
+        int moved = 0;
+        for (int key = 1; key <= KEYS; key++) {
+            int owner = after.ownerOf(key);
+            if (owner != before.ownerOf(key)) {
+                assertEquals(4, owner);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > KEYS / 5 * 0.8 && moved < KEYS / 5 * 1.2, String.valueOf(moved));
+    }
+
+    @Test
+    void shouldRejectEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(0, 128));
+    }
+}
@@ -0,0 +1,140 @@
+package ru.yandex.practicum.filmorate.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+    private final ObjectMapper mapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    @Test
+    void shouldBehaveLikeHashSetOnRandomOperations() {
+        Random random = new Random(7);
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(2_000) - 10;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.remove(value), set.remove(value));
+                case 1 -> assertEquals(expected.contains(value), set.contains(value));
+                default -> assertEquals(expected.add(value), set.add(value));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).sorted().toArray(), set.toArray());
+        assertEquals(set, set.copy());
+    }
+
+    @Test
+    void shouldIsolateSharedSetsPageByPage() {
+        IntHashSet live = new IntHashSet();
+        for (int i = 1; i <= 10_000; i++) {
+            live.add(i);
+        }
+        IntHashSet published = live.share();
+
+        live.add(10_001);
+        live.remove(5);
+        IntHashSet republished = live.share();
+        for (int i = 10_002; i <= 20_000; i++) {
+            live.add(i);
+        }
+
+        assertEquals(10_000, published.size());
+        assertTrue(published.contains(5));
+        assertFalse(published.contains(10_001));
+        assertArrayEquals(IntStream.rangeClosed(1, 10_000).toArray(), published.toArray());
+        assertFalse(republished.contains(5));
+        assertTrue(republished.contains(10_001));
+        assertFalse(republished.contains(10_002));
+        assertEquals(19_999, live.size());
+        published.add(5);
+        assertFalse(live.contains(5));
+    }
+
+    @Test
+    void shouldIntersectSets() {
+        IntHashSet small = IntHashSet.of(0, 1, 5, 9);
+        IntHashSet large = IntHashSet.of(0, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+        int[] common = small.intersection(large);
+        Arrays.sort(common);
+
+        assertArrayEquals(new int[]{0, 5, 9}, common);
+        assertArrayEquals(common, sorted(large.intersection(small)));
+    }
+
+    @Test
+    void shouldListSmallestValuesAfterCursor() {
+        IntHashSet set = IntHashSet.of(40, 0, 7, 13, 2, 99);
+
+        assertArrayEquals(new int[]{0, 2, 7}, set.sortedAfter(-1, 3));
+        assertArrayEquals(new int[]{13, 40}, set.sortedAfter(7, 2));
+        assertArrayEquals(new int[]{99}, set.sortedAfter(40, 10));
+        assertArrayEquals(new int[0], set.sortedAfter(99, 10));
+    }
+
+    @Test
+    void shouldKeepJsonShapeOfFriendsList() throws Exception {
+        User user = new User();
+        user.setId(1);
+        user.setLogin("login");
+        user.addFriend(3);
+        user.addFriend(2);
+
+        String json = mapper.writeValueAsString(user);
+        assertTrue(json.contains("\"friendsList\":[2,3]"), json);
+
+        User parsed = mapper.readValue(json, User.class);
+        assertEquals(IntHashSet.of(2, 3), parsed.getFriendsList());
+    }
+
+    @Test
+    void shouldSampleAtMostLimitDistinctValues() {
+        IntHashSet set = new IntHashSet();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i);
+        }
+        Set<Integer> sampled = new HashSet<>();
+        set.sample(100, new Random(7), value -> assertTrue(sampled.add(value) && set.contains(value)));
+        assertEquals(100, sampled.size());
+
+        Set<Integer> all = new HashSet<>();
+        set.sample(5000, new Random(7), all::add);
+        assertEquals(1000, all.size());
+    }
+
+    @Test
+    void shouldKeepJsonShapeOfLikeScore() throws Exception {
+        Film film = new Film();
+        film.setId(1);
+        film.setName("name");
+        film.setReleaseDate(LocalDate.of(2000, 10, 10));
+        film.addLike(5);
+
+        String json = mapper.writeValueAsString(film);
+        assertTrue(json.contains("\"likeScore\":[5]"), json);
+
+        Film parsed = mapper.readValue("{\"name\":\"name\",\"likeScore\":[]}", Film.class);
+        assertTrue(parsed.getLikeScore().isEmpty());
+    }
+
+    private static int[] sorted(int[] values) {
+        Arrays.sort(values);
+        return values;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntHashMapTest {
+
+    @Test
+    void shouldBehaveLikeHashMapOnRandomIncrements() {
+        Random random = new Random(11);
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 10;
+            int delta = random.nextInt(5) + 1;
+            assertEquals((int) expected.merge(key, delta, Integer::sum), map.addTo(key, delta));
+        }
+
+        assertEquals(expected.size(), map.size());
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+        assertEquals(0, map.get(1_000_000));
+    }
+
+    @Test
+    void shouldBehaveLikeHashMapOnRandomPutsAndRemovals() {
+        Random random = new Random(17);
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                int value = random.nextInt(100) + 1;
+                map.put(key, value);
+                expected.put(key, value);
+            } else {
+                assertEquals((int) expected.getOrDefault(key, 0), map.remove(key));
+                expected.remove(key);
+            }
+        }
+        map.removeIf((key, value) -> value > 50);
+        expected.values().removeIf(value -> value > 50);
+
+        assertEquals(expected.size(), map.size());
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+
+    @Test
+    void shouldKeepHighestScoresOrderedByScoreThenId() {
+        TopK topK = new TopK(3);
+        topK.offer(5, 1);
+        topK.offer(4, 7);
+        topK.offer(9, 7);
+        topK.offer(2, 3);
+        topK.offer(1, 7);
+
+        assertArrayEquals(new int[]{1, 4, 9}, topK.ids());
+        assertArrayEquals(new int[]{7, 7, 7}, topK.scores());
+    }
+}
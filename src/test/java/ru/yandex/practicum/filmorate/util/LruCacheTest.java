@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTest {
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntry() {
+        LruCache<Integer, String> cache = new LruCache<>(2, 1);
+        cache.get(1, () -> "one");
+        cache.get(2, () -> "two");
+        cache.get(1, () -> "other");
+        cache.get(3, () -> "three");
+
+        assertEquals("one", cache.get(1, () -> "reloaded"));
+        assertEquals("reloaded", cache.get(2, () -> "reloaded"));
+        assertEquals(new LruCache.Stats(2, 4, 2, 2), cache.stats());
+    }
+
+    @Test
+    void shouldNotStoreValueLoadedDuringInvalidation() {
+        LruCache<Integer, String> cache = new LruCache<>(4, 1);
+        cache.get(1, () -> {
+            cache.invalidate(1);
+            return "stale";
+        });
+
+        assertEquals("fresh", cache.get(1, () -> "fresh"));
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitedLoggerTest {
+
+    @Test
+    void shouldEmitAtMostLimitPerSecond() {
+        Logger logger = (Logger) LoggerFactory.getLogger("rate-limited-test");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+
+        RateLimitedLogger sampled = new RateLimitedLogger(logger, 10);
+        for (int i = 0; i < 100; i++) {
+            sampled.info("Событие {}", i);
+        }
+
+        assertEquals(10, appender.list.size());
+        assertEquals("Событие 9", appender.list.get(9).getFormattedMessage());
+        logger.detachAppender(appender);
+    }
+}
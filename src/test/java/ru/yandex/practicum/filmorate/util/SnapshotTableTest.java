@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTableTest {
+
+    @Test
+    void shouldPublishChangesAsNewVersionAndKeepOldOne() {
+        Map<Integer, String> values = new ConcurrentHashMap<>();
+        SnapshotTable<String> table = new SnapshotTable<>(values::get);
+        values.put(1, "a");
+        values.put(5000, "b");
+        table.markChanged(1);
+        table.markChanged(5000);
+
+        SnapshotTable.Snapshot<String> first = table.current();
+        assertSame(first, table.current());
+        assertEquals(List.of("a", "b"), first.values());
+        assertEquals(List.of("b"), first.page(1, 10));
+
+        values.put(1, "c");
+        values.remove(5000);
+        values.put(2, "d");
+        table.markChanged(1);
+        table.markChanged(5000);
+        table.markChanged(2);
+        SnapshotTable.Snapshot<String> second = table.current();
+
+        assertTrue(second.version() > first.version());
+        assertEquals(List.of("a", "b"), first.values());
+        assertEquals(List.of("c", "d"), second.values());
+        assertEquals(2, second.size());
+        assertNull(second.get(5000));
+        assertNull(second.get(-1));
+        assertEquals(List.of("d"), second.page(1, 1));
+    }
+}
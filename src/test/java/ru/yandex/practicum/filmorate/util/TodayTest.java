@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodayTest {
+
+    @Test
+    void shouldRollOverAtMidnightInClockZone() {
+        ZoneId zone = ZoneId.of("Europe/Moscow");
+        Instant[] now = {Instant.parse("2024-03-10T20:59:59Z")};
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now[0];
+            }
+        };
+        Today today = new Today(clock);
+
+        assertEquals(LocalDate.of(2024, 3, 10), today.get());
+        now[0] = Instant.parse("2024-03-10T21:00:00Z");
+        assertEquals(LocalDate.of(2024, 3, 11), today.get());
+        now[0] = Instant.parse("2024-03-10T20:00:00Z");
+        assertEquals(LocalDate.of(2024, 3, 10), today.get());
+    }
+}